@@ -0,0 +1,84 @@
+package pathfinder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.Edge;
+import pathfinder.graph.EuclideanHeuristic;
+import pathfinder.graph.ListGraph;
+import pathfinder.graph.PathSearch;
+
+// Dijkstra against A* with the calibrated Euclidean heuristic on a geometric graph.
+// The settled counter reports how many places each search settled per query.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AStarBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int nodes;
+
+    private ListGraph<GeoPoint> graph;
+    private EuclideanHeuristic<GeoPoint> heuristic;
+    private List<GeoPoint> from = new ArrayList<>();
+    private List<GeoPoint> to = new ArrayList<>();
+    private int query;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Settled {
+        public long settled;
+    }
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        graph = SyntheticGraphs.buildGeometric(nodes, 42);
+        heuristic = new EuclideanHeuristic<>(graph);
+
+        List<GeoPoint> places = new ArrayList<>(graph.getNodes());
+        Random random = new Random(7);
+
+        for (int i = 0; i < QUERIES; i++) {
+            from.add(places.get(random.nextInt(places.size())));
+            to.add(places.get(random.nextInt(places.size())));
+        }
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> dijkstra(Settled counter) {
+        query = (query + 1) % QUERIES;
+        PathSearch<GeoPoint> search = new PathSearch<>(graph);
+        List<Edge<GeoPoint>> path = search.find(from.get(query), to.get(query));
+        counter.settled += search.getSettledCount();
+        return path;
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> aStar(Settled counter) {
+        query = (query + 1) % QUERIES;
+        PathSearch<GeoPoint> search = new PathSearch<>(graph);
+        List<Edge<GeoPoint>> path = search.find(from.get(query), to.get(query), heuristic);
+        counter.settled += search.getSettledCount();
+        return path;
+    }
+}
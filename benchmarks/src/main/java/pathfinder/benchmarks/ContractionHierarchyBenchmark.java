@@ -0,0 +1,79 @@
+package pathfinder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.ContractionHierarchy;
+import pathfinder.graph.Edge;
+import pathfinder.graph.ListGraph;
+
+// Plain getPath against a contraction hierarchy query, the hierarchy is built in setup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContractionHierarchyBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({ "10000", "100000" })
+    public int nodes;
+
+    private ListGraph<GeoPoint> graph;
+    private ContractionHierarchy<GeoPoint> hierarchy;
+    private List<GeoPoint> from = new ArrayList<>();
+    private List<GeoPoint> to = new ArrayList<>();
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildHierarchy() throws InterruptedException {
+        graph = SyntheticGraphs.buildGeometric(nodes, 42);
+        hierarchy = new ContractionHierarchy<>(graph);
+
+        if (!hierarchy.awaitCurrent(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Hierarchy not built in time");
+        }
+
+        List<GeoPoint> places = new ArrayList<>(graph.getNodes());
+        Random random = new Random(7);
+
+        for (int i = 0; i < QUERIES; i++) {
+            from.add(places.get(random.nextInt(places.size())));
+            to.add(places.get(random.nextInt(places.size())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        hierarchy.close();
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> getPath() {
+        query = (query + 1) % QUERIES;
+        return graph.getPath(from.get(query), to.get(query));
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> hierarchy() {
+        query = (query + 1) % QUERIES;
+        return hierarchy.getPath(from.get(query), to.get(query));
+    }
+}
@@ -0,0 +1,68 @@
+package pathfinder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.GraphSnapshot;
+
+// Full size x size distance matrix with a pool of the given parallelism (0 = all cores)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class DistanceMatrixBenchmark {
+    @Param({ "100000" })
+    public int nodes;
+
+    @Param({ "1000" })
+    public int size;
+
+    @Param({ "1", "0" })
+    public int threads;
+
+    private GraphSnapshot<GeoPoint> snapshot;
+    private List<GeoPoint> sources;
+    private List<GeoPoint> targets;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        snapshot = SyntheticGraphs.buildGeometric(nodes, 42).snapshot();
+
+        List<GeoPoint> places = new ArrayList<>(snapshot.getNodes());
+        Collections.shuffle(places, new Random(7));
+        sources = places.subList(0, size);
+        targets = places.subList(size, 2 * size);
+        pool = new ForkJoinPool(threads == 0 ? Runtime.getRuntime().availableProcessors() : threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long[][] distanceMatrix() {
+        return snapshot.distanceMatrix(sources, targets, pool);
+    }
+}
@@ -0,0 +1,82 @@
+package pathfinder.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.Edge;
+import pathfinder.graph.ListGraph;
+
+// Edge lookup on a hub node of growing degree. "scan" is the old behaviour of
+// walking the hub's edges to find the destination.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EdgeLookupBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    public int degree;
+
+    private ListGraph<Integer> graph;
+    private Integer[] targets = new Integer[QUERIES];
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildHub() {
+        graph = new ListGraph<>();
+        graph.add(0);
+
+        for (int i = 1; i <= degree; i++) {
+            graph.add(i);
+            graph.connect(0, i, "Road", i);
+        }
+
+        Random random = new Random(degree);
+
+        for (int i = 0; i < QUERIES; i++) {
+            targets[i] = 1 + random.nextInt(degree);
+        }
+    }
+
+    @Benchmark
+    public Edge<Integer> lookup() {
+        query = (query + 1) & (QUERIES - 1);
+        return graph.getEdgeBetween(0, targets[query]);
+    }
+
+    @Benchmark
+    public Edge<Integer> scan() {
+        query = (query + 1) & (QUERIES - 1);
+
+        for (Edge<Integer> edge : graph.getEdgesFrom(0)) {
+            if (edge.getDestination().equals(targets[query])) {
+                return edge;
+            }
+        }
+
+        return null;
+    }
+
+    @Benchmark
+    public void connectAndDisconnect() {
+        query = (query + 1) & (QUERIES - 1);
+        graph.disconnect(0, targets[query]);
+        graph.connect(0, targets[query], "Road", 1);
+    }
+}
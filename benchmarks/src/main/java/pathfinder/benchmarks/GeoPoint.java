@@ -0,0 +1,32 @@
+package pathfinder.benchmarks;
+
+import pathfinder.graph.Place;
+
+public class GeoPoint implements Place {
+    private final String name;
+    private final double x;
+    private final double y;
+
+    public GeoPoint(String name, double x, double y) {
+        this.name = name;
+        this.x = x;
+        this.y = y;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getxPos() {
+        return x;
+    }
+
+    public double getyPos() {
+        return y;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,101 @@
+package pathfinder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.Edge;
+import pathfinder.graph.ListGraph;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GraphBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int nodes;
+
+    private ListGraph<Integer> graph;
+    private int[] from = new int[QUERIES];
+    private int[] to = new int[QUERIES];
+    private int[] edgeFrom = new int[QUERIES];
+    private int[] edgeTo = new int[QUERIES];
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        graph = SyntheticGraphs.build(nodes, 42);
+
+        Random random = new Random(7);
+
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(nodes);
+            to[i] = random.nextInt(nodes);
+
+            List<Edge<Integer>> edges = new ArrayList<>(graph.getEdgesFrom(from[i]));
+            edgeFrom[i] = from[i];
+            edgeTo[i] = edges.get(random.nextInt(edges.size())).getDestination();
+        }
+    }
+
+    private int next() {
+        query = (query + 1) & (QUERIES - 1);
+        return query;
+    }
+
+    @Benchmark
+    public void addAndRemove() {
+        graph.add(-1);
+        graph.remove(-1);
+    }
+
+    @Benchmark
+    public void connectAndDisconnect() {
+        int i = next();
+        graph.add(-1);
+        graph.connect(from[i], -1, "Benchmark", 1);
+        graph.disconnect(from[i], -1);
+    }
+
+    @Benchmark
+    public Edge<Integer> getEdgeBetween() {
+        int i = next();
+        return graph.getEdgeBetween(edgeFrom[i], edgeTo[i]);
+    }
+
+    @Benchmark
+    public boolean pathExists() {
+        int i = next();
+        return graph.pathExists(from[i], to[i]);
+    }
+
+    @Benchmark
+    public List<Edge<Integer>> getPath() {
+        int i = next();
+        return graph.getPath(from[i], to[i]);
+    }
+
+    @Benchmark
+    public void setConnectionWeight() {
+        int i = next();
+        graph.setConnectionWeight(edgeFrom[i], edgeTo[i], 1 + (i & 63));
+    }
+}
@@ -0,0 +1,97 @@
+package pathfinder.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.GraphBuilder;
+import pathfinder.graph.GraphReader;
+import pathfinder.graph.GraphWriter;
+import pathfinder.graph.ListGraph;
+
+// Saving a whole geometric graph as text (to a writer that only counts, on one thread
+// or on a pool of all cores) and loading it back into a ListGraph
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class GraphIoBenchmark {
+    @Param({ "10000", "100000", "1000000" })
+    public int nodes;
+
+    private ListGraph<GeoPoint> graph;
+    private String text;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void buildGraph() throws IOException {
+        graph = SyntheticGraphs.buildGeometric(nodes, 42);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        StringWriter out = new StringWriter();
+        GraphWriter.write(out, "file:map.gif", graph);
+        text = out.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        CountingWriter out = new CountingWriter();
+        GraphWriter.write(out, "file:map.gif", graph);
+        return out.count;
+    }
+
+    @Benchmark
+    public long writeParallel() throws IOException {
+        CountingWriter out = new CountingWriter();
+        GraphWriter.write(out, "file:map.gif", graph, pool);
+        return out.count;
+    }
+
+    @Benchmark
+    public ListGraph<GeoPoint> read() throws IOException {
+        ListGraph<GeoPoint> loaded = new ListGraph<>();
+        new GraphReader(new StringReader(text)).read(new GraphBuilder<>(loaded, GeoPoint::new));
+        return loaded;
+    }
+
+    private static final class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package pathfinder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.Edge;
+import pathfinder.graph.ListGraph;
+
+// k alternative routes on a geometric graph against the single shortest one. The
+// Dijkstra that getPaths starts with covers the whole graph, so this shows what the
+// k - 1 alternatives add on top of it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KShortestPathsBenchmark {
+    private static final int QUERIES = 64;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int nodes;
+
+    @Param({ "10" })
+    public int k;
+
+    private ListGraph<GeoPoint> graph;
+    private List<GeoPoint> from = new ArrayList<>();
+    private List<GeoPoint> to = new ArrayList<>();
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        graph = SyntheticGraphs.buildGeometric(nodes, 42);
+
+        List<GeoPoint> places = new ArrayList<>(graph.getNodes());
+        Random random = new Random(7);
+
+        for (int i = 0; i < QUERIES; i++) {
+            from.add(places.get(random.nextInt(places.size())));
+            to.add(places.get(random.nextInt(places.size())));
+        }
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> getPath() {
+        query = (query + 1) % QUERIES;
+        return graph.getPath(from.get(query), to.get(query));
+    }
+
+    @Benchmark
+    public List<List<Edge<GeoPoint>>> getPaths() {
+        query = (query + 1) % QUERIES;
+        return graph.getPaths(from.get(query), to.get(query), k);
+    }
+}
@@ -0,0 +1,76 @@
+package pathfinder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pathfinder.graph.Edge;
+import pathfinder.graph.GraphSnapshot;
+import pathfinder.graph.ListGraph;
+
+// Searches on the map-based graph against the snapshot, whose searches reuse
+// per-thread arrays. Run with -prof gc and compare gc.alloc.rate.norm.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchAllocationBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({ "10000", "100000" })
+    public int nodes;
+
+    private ListGraph<GeoPoint> graph;
+    private GraphSnapshot<GeoPoint> snapshot;
+    private List<GeoPoint> from = new ArrayList<>();
+    private List<GeoPoint> to = new ArrayList<>();
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        graph = SyntheticGraphs.buildGeometric(nodes, 42);
+        snapshot = graph.snapshot();
+
+        List<GeoPoint> places = new ArrayList<>(graph.getNodes());
+        Random random = new Random(7);
+
+        for (int i = 0; i < QUERIES; i++) {
+            from.add(places.get(random.nextInt(places.size())));
+            to.add(places.get(random.nextInt(places.size())));
+        }
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> graphGetPath() {
+        query = (query + 1) % QUERIES;
+        return graph.getPath(from.get(query), to.get(query));
+    }
+
+    @Benchmark
+    public List<Edge<GeoPoint>> snapshotGetPath() {
+        query = (query + 1) % QUERIES;
+        return snapshot.getPath(from.get(query), to.get(query));
+    }
+
+    @Benchmark
+    public boolean snapshotPathExists() {
+        query = (query + 1) % QUERIES;
+        return snapshot.pathExists(from.get(query), to.get(query));
+    }
+}
@@ -0,0 +1,68 @@
+package pathfinder.benchmarks;
+
+import java.util.Random;
+
+import pathfinder.graph.ListGraph;
+
+// Connected graphs with road-network-like locality: a chain through every node
+// plus one extra connection per node to a nearby id, average degree about four.
+public class SyntheticGraphs {
+    private static final int NEIGHBOURHOOD = 1_000;
+
+    public static ListGraph<Integer> build(int nodes, long seed) {
+        ListGraph<Integer> graph = new ListGraph<>();
+        Random random = new Random(seed);
+
+        for (int i = 0; i < nodes; i++) {
+            graph.add(i);
+        }
+
+        for (int i = 1; i < nodes; i++) {
+            graph.connect(i - 1, i, "Road", 1 + random.nextInt(100));
+        }
+
+        for (int i = 0; i < nodes; i++) {
+            int other = Math.floorMod(i + random.nextInt(2 * NEIGHBOURHOOD) - NEIGHBOURHOOD, nodes);
+
+            if (other != i && graph.getEdgeBetween(i, other) == null) {
+                graph.connect(i, other, "Shortcut", 1 + random.nextInt(100));
+            }
+        }
+
+        return graph;
+    }
+
+    // Places on a jittered square grid joined to their right and lower neighbours, with
+    // weights between 1 and 1.5 times the distance like roads that do not run straight
+    public static ListGraph<GeoPoint> buildGeometric(int nodes, long seed) {
+        ListGraph<GeoPoint> graph = new ListGraph<>();
+        Random random = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(nodes));
+        GeoPoint[] points = new GeoPoint[nodes];
+
+        for (int i = 0; i < nodes; i++) {
+            double x = (i % side) * 10 + random.nextDouble() * 5;
+            double y = (i / side) * 10 + random.nextDouble() * 5;
+
+            points[i] = new GeoPoint("P" + i, x, y);
+            graph.add(points[i]);
+        }
+
+        for (int i = 0; i < nodes; i++) {
+            if (i % side + 1 < side && i + 1 < nodes) {
+                connect(graph, points[i], points[i + 1], random);
+            }
+            if (i + side < nodes) {
+                connect(graph, points[i], points[i + side], random);
+            }
+        }
+
+        return graph;
+    }
+
+    private static void connect(ListGraph<GeoPoint> graph, GeoPoint a, GeoPoint b, Random random) {
+        double distance = Math.hypot(a.getxPos() - b.getxPos(), a.getyPos() - b.getyPos());
+
+        graph.connect(a, b, "Road", (int) Math.ceil(distance * (1 + random.nextDouble() / 2)));
+    }
+}
@@ -0,0 +1,367 @@
+package pathfinder.graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Binary graph file, read through a memory mapping without parsing or copying.
+//
+//   header         64 bytes, see the *_AT constants
+//   string index   stringCount + 1 ints, byte offsets into the string data
+//   string data    UTF-8 place names, road names and the image
+//   places         per place: double x, double y, int name, int padding
+//   offsets        placeCount + 1 ints, adjacency of place i is entries offsets[i] .. offsets[i + 1] - 1
+//   entries        per entry: int target place, int weight, int road name
+//
+// Every connection has one entry from each end so adjacency can be scanned in place,
+// and a connection from a place to itself has a single entry.
+public class BinaryGraphFile {
+    public static final String EXTENSION = ".bgraph";
+
+    private static final int MAGIC = 0x50464742;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int PLACE_SIZE = 24;
+    private static final int ENTRY_SIZE = 12;
+
+    private static final int VERSION_AT = 4;
+    private static final int PLACE_COUNT_AT = 8;
+    private static final int ENTRY_COUNT_AT = 12;
+    private static final int STRING_COUNT_AT = 16;
+    private static final int IMAGE_AT = 20;
+    private static final int STRING_INDEX_AT = 24;
+    private static final int STRING_DATA_AT = 32;
+    private static final int PLACES_AT = 40;
+    private static final int OFFSETS_AT = 48;
+    private static final int ENTRIES_AT = 56;
+
+    private final ByteBuffer buffer;
+    private final int placeCount;
+    private final int entryCount;
+    private final int stringCount;
+    private final int stringIndex;
+    private final int stringData;
+    private final int places;
+    private final int offsets;
+    private final int entries;
+
+    // Checks every count, offset and id against the mapped size once, so the accessors
+    // can read without bounds checks of their own
+    private BinaryGraphFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary graph file");
+        }
+        if (buffer.getInt(VERSION_AT) != VERSION) {
+            throw new IOException("Unsupported binary graph version " + buffer.getInt(VERSION_AT));
+        }
+
+        placeCount = count(PLACE_COUNT_AT, "place count");
+        entryCount = count(ENTRY_COUNT_AT, "entry count");
+        stringCount = count(STRING_COUNT_AT, "string count");
+        stringIndex = section(STRING_INDEX_AT, 4L * (stringCount + 1L), "string index");
+        stringData = section(STRING_DATA_AT, 0, "string data");
+        places = section(PLACES_AT, (long) PLACE_SIZE * placeCount, "places");
+        offsets = section(OFFSETS_AT, 4L * (placeCount + 1L), "offsets");
+        entries = section(ENTRIES_AT, (long) ENTRY_SIZE * entryCount, "entries");
+
+        checkStrings();
+        checkString(buffer.getInt(IMAGE_AT), "image");
+
+        for (int place = 0; place < placeCount; place++) {
+            checkString(buffer.getInt(places + place * PLACE_SIZE + 16), "place name");
+        }
+
+        checkOffsets();
+
+        for (int entry = 0; entry < entryCount; entry++) {
+            int at = entries + entry * ENTRY_SIZE;
+            int target = buffer.getInt(at);
+
+            if (target < 0 || target >= placeCount) {
+                throw corrupt("connection to place " + target + " of " + placeCount);
+            }
+            if (buffer.getInt(at + 4) < 0) {
+                throw corrupt("negative weight");
+            }
+            checkString(buffer.getInt(at + 8), "road name");
+        }
+    }
+
+    private int count(int at, String what) throws IOException {
+        int count = buffer.getInt(at);
+
+        if (count < 0) {
+            throw corrupt(what + " " + count);
+        }
+
+        return count;
+    }
+
+    // Start of a section of the given size, which must lie within the file
+    private int section(int at, long size, String what) throws IOException {
+        long offset = buffer.getLong(at);
+
+        if (offset < HEADER_SIZE || offset > buffer.capacity() || size > buffer.capacity() - offset) {
+            throw corrupt(what + " outside the file");
+        }
+
+        return (int) offset;
+    }
+
+    // The string offsets start at 0, never decrease and end within the file
+    private void checkStrings() throws IOException {
+        int previous = 0;
+
+        if (buffer.getInt(stringIndex) != 0) {
+            throw corrupt("string index does not start at 0");
+        }
+        for (int id = 1; id <= stringCount; id++) {
+            int end = buffer.getInt(stringIndex + id * 4);
+
+            if (end < previous || end > buffer.capacity() - stringData) {
+                throw corrupt("string " + (id - 1) + " outside the file");
+            }
+            previous = end;
+        }
+    }
+
+    private void checkString(int id, String what) throws IOException {
+        if (id < 0 || id >= stringCount) {
+            throw corrupt(what + " is string " + id + " of " + stringCount);
+        }
+    }
+
+    // The adjacency offsets start at 0, never decrease and end at the entry count
+    private void checkOffsets() throws IOException {
+        int previous = 0;
+
+        if (buffer.getInt(offsets) != 0) {
+            throw corrupt("offsets do not start at 0");
+        }
+        for (int place = 1; place <= placeCount; place++) {
+            int offset = buffer.getInt(offsets + place * 4);
+
+            if (offset < previous || offset > entryCount) {
+                throw corrupt("offsets of place " + (place - 1) + " out of order");
+            }
+            previous = offset;
+        }
+        if (previous != entryCount) {
+            throw corrupt("offsets end at " + previous + " of " + entryCount + " entries");
+        }
+    }
+
+    private static IOException corrupt(String detail) {
+        return new IOException("Corrupt binary graph file: " + detail);
+    }
+
+    public static BinaryGraphFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BinaryGraphFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int placeCount() {
+        return placeCount;
+    }
+
+    public String image() {
+        return string(buffer.getInt(IMAGE_AT));
+    }
+
+    public String name(int place) {
+        return string(buffer.getInt(placeAt(place) + 16));
+    }
+
+    public double x(int place) {
+        return buffer.getDouble(placeAt(place));
+    }
+
+    public double y(int place) {
+        return buffer.getDouble(placeAt(place) + 8);
+    }
+
+    public int degree(int place) {
+        return firstEntry(place + 1) - firstEntry(place);
+    }
+
+    public int target(int place, int k) {
+        return buffer.getInt(entryAt(place, k));
+    }
+
+    public int weight(int place, int k) {
+        return buffer.getInt(entryAt(place, k) + 4);
+    }
+
+    public String roadName(int place, int k) {
+        return string(buffer.getInt(entryAt(place, k) + 8));
+    }
+
+    // Replays the file as image, places and one callback per connection, from the end
+    // with the lower id
+    public void read(GraphReader.Handler handler) {
+        handler.image(image());
+
+        String[] names = new String[placeCount];
+        for (int i = 0; i < placeCount; i++) {
+            names[i] = name(i);
+            handler.place(names[i], x(i), y(i));
+        }
+
+        for (int i = 0; i < placeCount; i++) {
+            for (int k = 0; k < degree(i); k++) {
+                int target = target(i, k);
+
+                if (target >= i) {
+                    handler.connection(names[i], names[target], roadName(i, k), weight(i, k));
+                }
+            }
+        }
+    }
+
+    private int placeAt(int place) {
+        if (place < 0 || place >= placeCount) {
+            throw new NoSuchElementException();
+        }
+
+        return places + place * PLACE_SIZE;
+    }
+
+    private int firstEntry(int place) {
+        return buffer.getInt(offsets + place * 4);
+    }
+
+    private int entryAt(int place, int k) {
+        if (k < 0 || k >= degree(place)) {
+            throw new NoSuchElementException();
+        }
+
+        return entries + (firstEntry(place) + k) * ENTRY_SIZE;
+    }
+
+    private String string(int id) {
+        int start = buffer.getInt(stringIndex + id * 4);
+        int end = buffer.getInt(stringIndex + (id + 1) * 4);
+        byte[] bytes = new byte[end - start];
+
+        buffer.get(stringData + start, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static <T extends Place> void write(Path path, String image, Graph<T> graph) throws IOException {
+        List<T> nodes = new ArrayList<>(graph.getNodes());
+        Map<T, Integer> ids = new HashMap<>();
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ids.put(nodes.get(i), i);
+        }
+
+        int imageId = intern(image, stringIds, strings);
+        int[] nameIds = new int[nodes.size()];
+        int entryCount = 0;
+
+        for (int i = 0; i < nodes.size(); i++) {
+            nameIds[i] = intern(nodes.get(i).getName(), stringIds, strings);
+
+            for (Edge<T> edge : graph.getEdgesFrom(nodes.get(i))) {
+                intern(edge.getName(), stringIds, strings);
+                entryCount++;
+            }
+        }
+
+        long stringBytes = 0;
+        for (byte[] string : strings) {
+            stringBytes += string.length;
+        }
+
+        long stringIndexAt = HEADER_SIZE;
+        long stringDataAt = stringIndexAt + 4L * (strings.size() + 1);
+        long placesAt = align(stringDataAt + stringBytes);
+        long offsetsAt = placesAt + (long) PLACE_SIZE * nodes.size();
+        long entriesAt = offsetsAt + 4L * (nodes.size() + 1);
+
+        if (entriesAt + (long) ENTRY_SIZE * entryCount > Integer.MAX_VALUE) {
+            throw new IOException("Graph too large for a binary graph file");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nodes.size());
+            out.writeInt(entryCount);
+            out.writeInt(strings.size());
+            out.writeInt(imageId);
+            out.writeLong(stringIndexAt);
+            out.writeLong(stringDataAt);
+            out.writeLong(placesAt);
+            out.writeLong(offsetsAt);
+            out.writeLong(entriesAt);
+
+            int stringOffset = 0;
+            out.writeInt(stringOffset);
+            for (byte[] string : strings) {
+                stringOffset += string.length;
+                out.writeInt(stringOffset);
+            }
+            for (byte[] string : strings) {
+                out.write(string);
+            }
+            for (long i = stringDataAt + stringBytes; i < placesAt; i++) {
+                out.writeByte(0);
+            }
+
+            for (int i = 0; i < nodes.size(); i++) {
+                out.writeDouble(nodes.get(i).getxPos());
+                out.writeDouble(nodes.get(i).getyPos());
+                out.writeInt(nameIds[i]);
+                out.writeInt(0);
+            }
+
+            int entry = 0;
+            out.writeInt(entry);
+            for (T node : nodes) {
+                entry += graph.getEdgesFrom(node).size();
+                out.writeInt(entry);
+            }
+
+            for (T node : nodes) {
+                Collection<Edge<T>> edges = graph.getEdgesFrom(node);
+
+                for (Edge<T> edge : edges) {
+                    out.writeInt(ids.get(edge.getDestination()));
+                    out.writeInt(edge.getWeight());
+                    out.writeInt(stringIds.get(edge.getName()));
+                }
+            }
+        }
+    }
+
+    private static int intern(String string, Map<String, Integer> stringIds, List<byte[]> strings) {
+        return stringIds.computeIfAbsent(string, s -> {
+            strings.add(s.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
@@ -0,0 +1,320 @@
+package pathfinder.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Graph safe for many concurrent readers and writers. Readers never lock: adjacency
+// lives in concurrent maps whose iterators never throw ConcurrentModificationException.
+// Both directions of a connection share one Link, whose road is replaced, never
+// mutated, so a reader sees a connection made, reweighted or broken on both sides at
+// once. Writers lock the stripes of every node whose adjacency they touch, always in
+// stripe order. Edges handed out are copies that write their weight back through
+// setConnectionWeight.
+public class ConcurrentListGraph<T> implements Graph<T> {
+    private static final int STRIPES = 64;
+
+    private final Map<T, Map<T, Link>> nodes = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public ConcurrentListGraph() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void add(T node) {
+        nodes.putIfAbsent(node, new ConcurrentHashMap<>());
+    }
+
+    public void remove(T node) {
+        while (true) {
+            Map<T, Link> edges = nodes.get(node);
+
+            if (edges == null) {
+                throw new NoSuchElementException();
+            }
+
+            // Connections to node need its stripe, so once everything is locked the
+            // neighbours can only have shrunk; retry if one was added meanwhile
+            Set<T> neighbours = new HashSet<>(edges.keySet());
+            Set<Integer> stripes = new TreeSet<>();
+            stripes.add(stripe(node));
+            for (T neighbour : neighbours) {
+                stripes.add(stripe(neighbour));
+            }
+
+            lock(stripes);
+            try {
+                if (nodes.get(node) != edges) {
+                    continue;
+                }
+                if (!neighbours.containsAll(edges.keySet())) {
+                    continue;
+                }
+
+                for (Map.Entry<T, Link> edge : edges.entrySet()) {
+                    edge.getValue().road = null;
+                    nodes.get(edge.getKey()).remove(node);
+                }
+                nodes.remove(node);
+                return;
+            } finally {
+                unlock(stripes);
+            }
+        }
+    }
+
+    public Set<T> getNodes() {
+        return Collections.unmodifiableSet(nodes.keySet());
+    }
+
+    public List<Edge<T>> getPath(T from, T to) {
+        return new PathSearch<>(nodes::containsKey, this::edgesOf).find(from, to);
+    }
+
+    public boolean pathExists(T a, T b) {
+        if (!nodes.containsKey(a) || !nodes.containsKey(b)) {
+            return false;
+        }
+
+        Set<T> visited = new HashSet<>();
+        Deque<T> stack = new ArrayDeque<>();
+
+        visited.add(a);
+        stack.push(a);
+
+        while (!stack.isEmpty()) {
+            T current = stack.pop();
+
+            if (current.equals(b)) {
+                return true;
+            }
+
+            for (Edge<T> edge : edgesOf(current)) {
+                if (visited.add(edge.getDestination())) {
+                    stack.push(edge.getDestination());
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public void setConnectionWeight(T a, T b, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+
+        lock(first, second);
+        try {
+            Map<T, Link> edgesA = nodes.get(a);
+            Map<T, Link> edgesB = nodes.get(b);
+
+            if (edgesA == null || edgesB == null || !edgesA.containsKey(b) || !edgesB.containsKey(a)) {
+                throw new NoSuchElementException();
+            }
+
+            Link link = edgesA.get(b);
+
+            link.road = new Road(link.road.name, weight);
+        } finally {
+            unlock(first, second);
+        }
+    }
+
+    public void disconnect(T a, T b) {
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+
+        lock(first, second);
+        try {
+            Map<T, Link> edgesA = nodes.get(a);
+            Map<T, Link> edgesB = nodes.get(b);
+
+            if (edgesA == null || edgesB == null) {
+                throw new NoSuchElementException();
+            }
+
+            if (!edgesA.containsKey(b) || !edgesB.containsKey(a)) {
+                throw new IllegalStateException();
+            }
+
+            edgesA.get(b).road = null;
+            edgesA.remove(b);
+            edgesB.remove(a);
+        } finally {
+            unlock(first, second);
+        }
+    }
+
+    public Collection<Edge<T>> getEdgesFrom(T node) {
+        Map<T, Link> edges = nodes.get(node);
+
+        if (edges == null) {
+            throw new NoSuchElementException();
+        }
+
+        return Collections.unmodifiableList(copiesOf(node, edges));
+    }
+
+    public void connect(T a, T b, String name, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+
+        lock(first, second);
+        try {
+            Map<T, Link> edgesA = nodes.get(a);
+            Map<T, Link> edgesB = nodes.get(b);
+
+            if (edgesA == null || edgesB == null) {
+                throw new NoSuchElementException();
+            }
+
+            if (edgesA.containsKey(b) || edgesB.containsKey(a)) {
+                throw new IllegalStateException();
+            }
+
+            // Readers skip the link until its road is set
+            Link link = new Link();
+
+            edgesA.put(b, link);
+            edgesB.put(a, link);
+            link.road = new Road(name, weight);
+        } finally {
+            unlock(first, second);
+        }
+    }
+
+    public Edge<T> getEdgeBetween(T from, T to) {
+        Map<T, Link> edges = nodes.get(from);
+
+        if (edges == null || !nodes.containsKey(to)) {
+            throw new NoSuchElementException();
+        }
+
+        Link link = edges.get(to);
+        Road road = link == null ? null : link.road;
+
+        return road == null ? null : new LinkEdge(from, to, road);
+    }
+
+    // Nodes removed while a search is running simply have no edges
+    private Collection<Edge<T>> edgesOf(T node) {
+        Map<T, Link> edges = nodes.get(node);
+
+        return edges == null ? Collections.emptyList() : copiesOf(node, edges);
+    }
+
+    private List<Edge<T>> copiesOf(T node, Map<T, Link> edges) {
+        List<Edge<T>> result = new ArrayList<>(edges.size());
+
+        for (Map.Entry<T, Link> edge : edges.entrySet()) {
+            Road road = edge.getValue().road;
+
+            if (road != null) {
+                result.add(new LinkEdge(node, edge.getKey(), road));
+            }
+        }
+
+        return result;
+    }
+
+    private int stripe(T node) {
+        int hash = node.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private void lock(int first, int second) {
+        locks[first].lock();
+        if (second != first) {
+            locks[second].lock();
+        }
+    }
+
+    private void unlock(int first, int second) {
+        if (second != first) {
+            locks[second].unlock();
+        }
+        locks[first].unlock();
+    }
+
+    private void lock(Set<Integer> stripes) {
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+    }
+
+    private void unlock(Set<Integer> stripes) {
+        for (int stripe : stripes) {
+            locks[stripe].unlock();
+        }
+    }
+
+    private static final class Road {
+        private final String name;
+        private final int weight;
+
+        Road(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    // The connection as both its ends see it; no road while it is being made or after it
+    // is broken
+    private static final class Link {
+        private volatile Road road;
+    }
+
+    private final class LinkEdge extends Edge<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final T source;
+
+        LinkEdge(T source, T destination, Road road) {
+            super(destination, road.name, road.weight);
+            this.source = source;
+        }
+
+        @Override
+        public void setWeight(int weight) {
+            setConnectionWeight(source, getDestination(), weight);
+            super.setWeight(weight);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (T node : nodes.keySet()) {
+            sb.append(node.toString()).append(" {\n");
+
+            for (Edge<T> edge : edgesOf(node)) {
+                sb.append("- ").append(edge.toString()).append("\n");
+            }
+            sb.append("}\n\n");
+        }
+
+        return sb.toString();
+    }
+}
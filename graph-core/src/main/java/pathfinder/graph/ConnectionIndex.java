@@ -0,0 +1,146 @@
+package pathfinder.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Finds the connections whose bounding box overlaps a rectangle, for drawing only the
+// roads in view. Connections up to longLength go through the places index: a place
+// found in the rectangle widened by the longest of them has every such road that can
+// reach the rectangle, and each one is then tested by its own bounding box. The few
+// longer ones are kept in a list and tested one by one, so a single long road does
+// not widen the search for all the others.
+public class ConnectionIndex<T extends Place> implements GraphListener<T> {
+    public interface ConnectionAction<T> {
+        void accept(T a, T b);
+    }
+
+    private final ListGraph<T> graph;
+    private final SpatialIndex<T> places;
+    private final double longLength;
+    private final List<T> longEnds = new ArrayList<>();
+    private double longestShort;
+
+    private ConnectionIndex(ListGraph<T> graph, SpatialIndex<T> places, double longLength) {
+        this.graph = graph;
+        this.places = places;
+        this.longLength = longLength;
+    }
+
+    // An index over the graph's connections, finding places through the given index,
+    // kept up to date as connections are made and broken
+    public static <T extends Place> ConnectionIndex<T> attach(ListGraph<T> graph, SpatialIndex<T> places,
+            double longLength) {
+        ConnectionIndex<T> index = new ConnectionIndex<>(graph, places, longLength);
+        IntGraph core = graph.getCore();
+
+        for (T place : graph.getNodes()) {
+            int id = graph.idOf(place);
+
+            for (int position = 0; position < core.degree(id); position++) {
+                int target = core.target(id, position);
+
+                if (id <= target) {
+                    index.connected(place, graph.node(target), null, 0);
+                }
+            }
+        }
+        graph.addListener(index);
+
+        return index;
+    }
+
+    // Every connection whose bounding box overlaps minX <= x <= maxX, minY <= y <= maxY,
+    // once each
+    public void forEachInRange(double minX, double minY, double maxX, double maxY,
+            ConnectionAction<? super T> action) {
+        IntGraph core = graph.getCore();
+        double reach = longestShort;
+
+        // A short connection overlapping the rectangle has both ends in the widened one, so
+        // it is found from either end and reported from the lower id one
+        places.forEachInRange(minX - reach, minY - reach, maxX + reach, maxY + reach, place -> {
+            int id = graph.idOf(place);
+
+            for (int position = 0; position < core.degree(id); position++) {
+                int target = core.target(id, position);
+                T other = graph.node(target);
+
+                if (id <= target && !isLong(place, other) && overlaps(place, other, minX, minY, maxX, maxY)) {
+                    action.accept(place, other);
+                }
+            }
+        });
+
+        for (int i = 0; i < longEnds.size(); i += 2) {
+            T a = longEnds.get(i);
+            T b = longEnds.get(i + 1);
+
+            if (overlaps(a, b, minX, minY, maxX, maxY)) {
+                action.accept(a, b);
+            }
+        }
+    }
+
+    public void detach() {
+        graph.removeListener(this);
+    }
+
+    @Override
+    public void nodeRemoved(T node) {
+        for (int i = longEnds.size() - 2; i >= 0; i -= 2) {
+            if (longEnds.get(i) == node || longEnds.get(i + 1) == node) {
+                removeLong(i);
+            }
+        }
+    }
+
+    @Override
+    public void connected(T a, T b, String name, int weight) {
+        if (isLong(a, b)) {
+            longEnds.add(a);
+            longEnds.add(b);
+        } else {
+            longestShort = Math.max(longestShort, length(a, b));
+        }
+    }
+
+    @Override
+    public void disconnected(T a, T b) {
+        if (!isLong(a, b)) {
+            return;
+        }
+
+        for (int i = 0; i < longEnds.size(); i += 2) {
+            T from = longEnds.get(i);
+            T to = longEnds.get(i + 1);
+
+            if ((from == a && to == b) || (from == b && to == a)) {
+                removeLong(i);
+                return;
+            }
+        }
+    }
+
+    // Moves the last pair into the gap
+    private void removeLong(int i) {
+        int last = longEnds.size() - 2;
+
+        longEnds.set(i, longEnds.get(last));
+        longEnds.set(i + 1, longEnds.get(last + 1));
+        longEnds.remove(last + 1);
+        longEnds.remove(last);
+    }
+
+    private boolean isLong(T a, T b) {
+        return length(a, b) > longLength;
+    }
+
+    private static double length(Place a, Place b) {
+        return Math.hypot(a.getxPos() - b.getxPos(), a.getyPos() - b.getyPos());
+    }
+
+    private static boolean overlaps(Place a, Place b, double minX, double minY, double maxX, double maxY) {
+        return Math.min(a.getxPos(), b.getxPos()) <= maxX && Math.max(a.getxPos(), b.getxPos()) >= minX
+                && Math.min(a.getyPos(), b.getyPos()) <= maxY && Math.max(a.getyPos(), b.getyPos()) >= minY;
+    }
+}
@@ -0,0 +1,97 @@
+package pathfinder.graph;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Union-find over the nodes of a graph. Additions and connections are applied
+// incrementally; removals only mark the index stale and it is rebuilt from the
+// graph the next time it is queried.
+public class ConnectivityIndex<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<T, Integer> ids = new HashMap<>();
+    private int[] parent = new int[16];
+    private int[] rank = new int[16];
+    private boolean stale;
+
+    public void add(T node) {
+        if (ids.containsKey(node)) {
+            return;
+        }
+
+        int id = ids.size();
+
+        if (id == parent.length) {
+            parent = Arrays.copyOf(parent, id * 2);
+            rank = Arrays.copyOf(rank, id * 2);
+        }
+
+        parent[id] = id;
+        rank[id] = 0;
+        ids.put(node, id);
+    }
+
+    public void union(T a, T b) {
+        int rootA = find(ids.get(a));
+        int rootB = find(ids.get(b));
+
+        if (rootA == rootB) {
+            return;
+        }
+
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+    }
+
+    public void invalidate() {
+        stale = true;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void rebuild(Graph<T> graph) {
+        ids.clear();
+
+        for (T node : graph.getNodes()) {
+            add(node);
+        }
+
+        for (T node : graph.getNodes()) {
+            for (Edge<T> edge : graph.getEdgesFrom(node)) {
+                union(node, edge.getDestination());
+            }
+        }
+
+        stale = false;
+    }
+
+    public boolean connected(T a, T b) {
+        Integer idA = ids.get(a);
+        Integer idB = ids.get(b);
+
+        if (idA == null || idB == null) {
+            return false;
+        }
+
+        return find(idA) == find(idB);
+    }
+
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+
+        return id;
+    }
+}
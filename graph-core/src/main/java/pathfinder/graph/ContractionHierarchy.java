@@ -0,0 +1,660 @@
+package pathfinder.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Shortest paths over a contraction hierarchy of a mostly static ListGraph.
+//
+// Places are contracted one at a time in order of importance. Contracting a place
+// adds a shortcut between two of its neighbours whenever the route through it is the
+// only shortest one. A query then runs Dijkstra upwards in the order from both ends
+// and unpacks the shortcuts of the best meeting point back into the graph's edges.
+//
+// The hierarchy belongs to one graph version and is built in the background. Every
+// change to the graph takes a snapshot on the changing thread and schedules a build
+// from it, superseded snapshots are skipped. Changes made inside batch() take one
+// snapshot when the batch ends. Until the hierarchy for the current version is
+// ready, queries are answered by the graph itself.
+//
+// The rebuilds run on the given executor, or on a thread of its own that close()
+// stops. Close the hierarchy when it is no longer needed so it stops following the graph.
+public class ContractionHierarchy<T> implements AutoCloseable {
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int ESTIMATE_SETTLE_LIMIT = 50;
+
+    private final ListGraph<T> graph;
+    private final Executor rebuilder;
+    private final ExecutorService ownRebuilder;
+    private final GraphListener<T> listener = new GraphListener<>() {
+        @Override
+        public void nodeAdded(T node) {
+            changed();
+        }
+
+        @Override
+        public void nodeRemoved(T node) {
+            changed();
+        }
+
+        @Override
+        public void connected(T a, T b, String name, int weight) {
+            changed();
+        }
+
+        @Override
+        public void disconnected(T a, T b) {
+            changed();
+        }
+
+        @Override
+        public void weightChanged(T a, T b, int weight) {
+            changed();
+        }
+    };
+    private volatile Hierarchy<T> current;
+    // Only touched by the thread that changes the graph
+    private int batchDepth;
+    private boolean changedInBatch;
+    // Guarded by this
+    private GraphSnapshot<T> pending;
+    private long pendingVersion;
+    private boolean building;
+
+    public ContractionHierarchy(ListGraph<T> graph) {
+        this(graph, null);
+    }
+
+    // Builds on the executor, which stays the caller's to shut down
+    public ContractionHierarchy(ListGraph<T> graph, Executor executor) {
+        this.graph = graph;
+
+        if (executor == null) {
+            ownRebuilder = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "contraction-hierarchy");
+                thread.setDaemon(true);
+                return thread;
+            });
+            rebuilder = ownRebuilder;
+        } else {
+            ownRebuilder = null;
+            rebuilder = executor;
+        }
+
+        graph.addListener(listener);
+        rebuild();
+    }
+
+    public List<Edge<T>> getPath(T from, T to) {
+        Hierarchy<T> hierarchy = current;
+
+        if (hierarchy == null || hierarchy.version != graph.getVersion()) {
+            return graph.getPath(from, to);
+        }
+
+        return hierarchy.query(from, to);
+    }
+
+    public boolean isCurrent() {
+        Hierarchy<T> hierarchy = current;
+
+        return hierarchy != null && hierarchy.version == graph.getVersion();
+    }
+
+    // Waits for the hierarchy of the graph as it is now, true if it was built in time
+    public boolean awaitCurrent(long timeout, TimeUnit unit) throws InterruptedException {
+        long version = graph.getVersion();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (this) {
+            while (current == null || current.version < version) {
+                long left = deadline - System.nanoTime();
+
+                if (left <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+        }
+
+        return current.version == version;
+    }
+
+    // Makes the changes as one: the graph is snapshotted once they are all done instead
+    // of after each of them. Call it on the thread that changes the graph.
+    public void batch(Runnable changes) {
+        batchDepth++;
+
+        try {
+            changes.run();
+        } finally {
+            if (--batchDepth == 0 && changedInBatch) {
+                changedInBatch = false;
+                rebuild();
+            }
+        }
+    }
+
+    public int getShortcutCount() {
+        Hierarchy<T> hierarchy = current;
+
+        return hierarchy == null ? 0 : hierarchy.shortcuts;
+    }
+
+    // Stops following the graph and, unless it was given one, stops the rebuild thread
+    @Override
+    public void close() {
+        graph.removeListener(listener);
+
+        if (ownRebuilder != null) {
+            ownRebuilder.shutdownNow();
+        }
+    }
+
+    private void changed() {
+        if (batchDepth > 0) {
+            changedInBatch = true;
+        } else {
+            rebuild();
+        }
+    }
+
+    // Called on the thread that changes the graph, the only one that may snapshot it
+    private synchronized void rebuild() {
+        pending = graph.snapshot();
+        pendingVersion = graph.getVersion();
+
+        if (!building) {
+            building = true;
+            rebuilder.execute(this::build);
+        }
+    }
+
+    // Builds the newest pending snapshot until there is none left
+    private void build() {
+        try {
+            while (true) {
+                GraphSnapshot<T> snapshot;
+                long version;
+
+                synchronized (this) {
+                    if (pending == null) {
+                        return;
+                    }
+
+                    snapshot = pending;
+                    version = pendingVersion;
+                    pending = null;
+                }
+
+                Hierarchy<T> hierarchy = new Hierarchy<>(snapshot, version);
+
+                synchronized (this) {
+                    current = hierarchy;
+                    notifyAll();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                building = false;
+
+                // A snapshot taken after the last check, or left by a failed build, still gets its turn
+                if (pending != null && !(ownRebuilder != null && ownRebuilder.isShutdown())) {
+                    building = true;
+                    rebuilder.execute(this::build);
+                }
+            }
+        }
+    }
+
+    private static final class Hierarchy<T> {
+        private final GraphSnapshot<T> snapshot;
+        private final long version;
+        private final int[] upOffsets;
+        private final int[] upTargets;
+        private final long[] upWeights;
+        private final int[] upMiddles;
+        private final int shortcuts;
+        // Each query borrows one context per direction
+        private final SearchContextPool queries = new SearchContextPool();
+
+        Hierarchy(GraphSnapshot<T> snapshot, long version) {
+            this.snapshot = snapshot;
+            this.version = version;
+
+            Contraction contraction = new Contraction(snapshot);
+            contraction.run();
+
+            upOffsets = contraction.upOffsets;
+            upTargets = contraction.upTargets;
+            upWeights = contraction.upWeights;
+            upMiddles = contraction.upMiddles;
+            shortcuts = contraction.shortcuts;
+        }
+
+        List<Edge<T>> query(T a, T b) {
+            int from = snapshot.idOf(a);
+            int to = snapshot.idOf(b);
+            int size = snapshot.size();
+            SearchContext forward = queries.borrow(size, size);
+            SearchContext backward = queries.borrow(size, size);
+
+            try {
+                int meeting = meet(from, to, forward, backward);
+
+                return meeting < 0 ? null : unpack(from, to, meeting, forward, backward);
+            } finally {
+                queries.release(backward);
+                queries.release(forward);
+            }
+        }
+
+        // Dijkstra upwards from both ends, returns the meeting place of the best route
+        // or -1 if there is none
+        private int meet(int from, int to, SearchContext forward, SearchContext backward) {
+            long best = Long.MAX_VALUE;
+            int meeting = -1;
+
+            forward.begin();
+            backward.begin();
+            relax(forward, from, -1, 0);
+            relax(backward, to, -1, 0);
+
+            while (!forward.queue.isEmpty() || !backward.queue.isEmpty()) {
+                long forwardMin = forward.queue.isEmpty() ? Long.MAX_VALUE : forward.queue.peekPriority();
+                long backwardMin = backward.queue.isEmpty() ? Long.MAX_VALUE : backward.queue.peekPriority();
+
+                if (Math.min(forwardMin, backwardMin) >= best) {
+                    break;
+                }
+
+                SearchContext search = forwardMin <= backwardMin ? forward : backward;
+                SearchContext other = search == forward ? backward : forward;
+                int node = search.queue.poll();
+                long distance = search.distance(node);
+
+                if (other.distance(node) != Long.MAX_VALUE && distance + other.distance(node) < best) {
+                    best = distance + other.distance(node);
+                    meeting = node;
+                }
+
+                for (int slot = upOffsets[node]; slot < upOffsets[node + 1]; slot++) {
+                    relax(search, upTargets[slot], node, distance + upWeights[slot]);
+                }
+            }
+
+            return meeting;
+        }
+
+        private static void relax(SearchContext search, int node, int via, long candidate) {
+            if (candidate >= search.distance(node)) {
+                return;
+            }
+
+            search.reach(node, candidate, via);
+            search.queue.push(node, candidate);
+        }
+
+        private List<Edge<T>> unpack(int from, int to, int meeting, SearchContext forward,
+                SearchContext backward) {
+            LinkedList<Edge<T>> path = new LinkedList<>();
+
+            // Forward half, collected from the meeting point back to from
+            List<int[]> arcs = new ArrayList<>();
+            for (int node = meeting; node != from; node = forward.via(node)) {
+                arcs.add(new int[] { forward.via(node), node });
+            }
+            Collections.reverse(arcs);
+
+            for (int[] arc : arcs) {
+                unpackArc(arc[0], arc[1], path);
+            }
+            for (int node = meeting; node != to; node = backward.via(node)) {
+                unpackArc(node, backward.via(node), path);
+            }
+
+            return Collections.unmodifiableList(withoutLoops(snapshot.node(from), path));
+        }
+
+        // Over zero-weight roads a route can come back to a place at no extra cost, as
+        // when the meeting point lies just past the target. Cutting out each such loop
+        // leaves a loopless route that is just as cheap.
+        private static <T> List<Edge<T>> withoutLoops(T from, List<Edge<T>> path) {
+            List<Edge<T>> route = new ArrayList<>(path.size());
+            Map<T, Integer> reached = new HashMap<>();
+
+            reached.put(from, 0);
+            for (Edge<T> edge : path) {
+                Integer earlier = reached.get(edge.getDestination());
+
+                if (earlier == null) {
+                    route.add(edge);
+                    reached.put(edge.getDestination(), route.size());
+                    continue;
+                }
+
+                while (route.size() > earlier) {
+                    reached.remove(route.remove(route.size() - 1).getDestination());
+                }
+            }
+
+            return route;
+        }
+
+        // Appends the original edges of arc u -> v, expanding shortcuts through their middle place
+        private void unpackArc(int u, int v, List<Edge<T>> path) {
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[] { u, v });
+
+            while (!stack.isEmpty()) {
+                int[] arc = stack.pop();
+                int middle = upMiddles[slotOf(arc[0], arc[1])];
+
+                if (middle < 0) {
+                    path.add(snapshot.edgeBetween(arc[0], arc[1]));
+                } else {
+                    stack.push(new int[] { middle, arc[1] });
+                    stack.push(new int[] { arc[0], middle });
+                }
+            }
+        }
+
+        // Arcs are stored at their lower-ranked end only
+        private int slotOf(int a, int b) {
+            int slot = Arrays.binarySearch(upTargets, upOffsets[a], upOffsets[a + 1], b);
+
+            return slot >= 0 ? slot : Arrays.binarySearch(upTargets, upOffsets[b], upOffsets[b + 1], a);
+        }
+    }
+
+    // Builds the upward graph. Works on a mutable copy of the snapshot's adjacency where
+    // each place keeps parallel target/weight/middle arrays, middle being -1 for an edge
+    // of the graph and the bypassed place for a shortcut. Weights are longs since a
+    // shortcut weighs as much as all the roads it bypasses.
+    private static final class Contraction {
+        private final int size;
+        private final int[][] arcTargets;
+        private final long[][] arcWeights;
+        private final int[][] arcMiddles;
+        private final int[] degree;
+        private final int[] contractedNeighbours;
+        private final int[] level;
+        private final long[] witnessDistance;
+        private final int[] witnessTarget;
+        private final IntMinHeap witnessQueue;
+        private int witnessStamp;
+        private int[] witnessTouched = new int[64];
+        private int witnessTouchedCount;
+
+        int[] upOffsets;
+        int[] upTargets;
+        long[] upWeights;
+        int[] upMiddles;
+        int shortcuts;
+
+        Contraction(GraphSnapshot<?> snapshot) {
+            size = snapshot.size();
+            arcTargets = new int[size][];
+            arcWeights = new long[size][];
+            arcMiddles = new int[size][];
+            degree = new int[size];
+            contractedNeighbours = new int[size];
+            level = new int[size];
+            witnessDistance = new long[size];
+            witnessTarget = new int[size];
+            witnessQueue = new IntMinHeap(size);
+            Arrays.fill(witnessDistance, Long.MAX_VALUE);
+
+            for (int node = 0; node < size; node++) {
+                int first = snapshot.firstSlot(node);
+                int count = snapshot.firstSlot(node + 1) - first;
+
+                arcTargets[node] = new int[Math.max(4, count)];
+                arcWeights[node] = new long[arcTargets[node].length];
+                arcMiddles[node] = new int[arcTargets[node].length];
+
+                // A road from a place to itself is never part of a shortest route
+                for (int k = 0; k < count; k++) {
+                    if (snapshot.target(first + k) != node) {
+                        arcTargets[node][degree[node]] = snapshot.target(first + k);
+                        arcWeights[node][degree[node]] = snapshot.weight(first + k);
+                        arcMiddles[node][degree[node]++] = -1;
+                    }
+                }
+            }
+        }
+
+        void run() {
+            IntMinHeap order = new IntMinHeap(size);
+
+            for (int node = 0; node < size; node++) {
+                order.push(node, priority(node));
+            }
+
+            while (!order.isEmpty()) {
+                int node = order.poll();
+
+                // Lazy update: re-evaluate and put it back if it is no longer the least important
+                long priority = priority(node);
+                if (!order.isEmpty() && priority > order.peekPriority()) {
+                    order.push(node, priority);
+                    continue;
+                }
+
+                contract(node);
+            }
+
+            compile();
+        }
+
+        private long priority(int node) {
+            int added = shortcutsFor(node, false, ESTIMATE_SETTLE_LIMIT);
+
+            return 2L * (added - degree[node]) + contractedNeighbours[node] + level[node];
+        }
+
+        // The arcs a place still has when it is contracted all lead upwards in the order
+        private void contract(int node) {
+            shortcutsFor(node, true, WITNESS_SETTLE_LIMIT);
+
+            for (int k = 0; k < degree[node]; k++) {
+                int neighbour = arcTargets[node][k];
+
+                removeArc(neighbour, node);
+                contractedNeighbours[neighbour]++;
+                level[neighbour] = Math.max(level[neighbour], level[node] + 1);
+            }
+        }
+
+        // Counts, and if apply is set adds, the shortcuts needed to bypass node
+        private int shortcutsFor(int node, boolean apply, int settleLimit) {
+            int count = degree[node];
+            int[] neighbours = Arrays.copyOf(arcTargets[node], count);
+            long[] weights = Arrays.copyOf(arcWeights[node], count);
+            long maxWeight = 0;
+            int added = 0;
+
+            for (int k = 0; k < count; k++) {
+                maxWeight = Math.max(maxWeight, weights[k]);
+            }
+
+            for (int i = 0; i < count - 1; i++) {
+                witnessStamp++;
+                for (int j = i + 1; j < count; j++) {
+                    witnessTarget[neighbours[j]] = witnessStamp;
+                }
+
+                witnessSearch(neighbours[i], node, weights[i] + maxWeight, count - i - 1, settleLimit);
+
+                for (int j = i + 1; j < count; j++) {
+                    long through = weights[i] + weights[j];
+
+                    if (witnessDistance[neighbours[j]] <= through) {
+                        continue;
+                    }
+
+                    added++;
+                    if (apply) {
+                        addShortcut(neighbours[i], neighbours[j], through, node);
+                    }
+                }
+
+                resetWitness();
+            }
+
+            return added;
+        }
+
+        private void addShortcut(int u, int w, long weight, int middle) {
+            int k = findArc(u, w);
+
+            if (k >= 0 && arcWeights[u][k] <= weight) {
+                return;
+            }
+            if (k < 0) {
+                shortcuts++;
+            }
+
+            putArc(u, w, weight, middle);
+            putArc(w, u, weight, middle);
+        }
+
+        private int findArc(int u, int w) {
+            for (int k = 0; k < degree[u]; k++) {
+                if (arcTargets[u][k] == w) {
+                    return k;
+                }
+            }
+
+            return -1;
+        }
+
+        private void putArc(int u, int w, long weight, int middle) {
+            int k = findArc(u, w);
+
+            if (k < 0) {
+                k = degree[u]++;
+
+                if (k == arcTargets[u].length) {
+                    arcTargets[u] = Arrays.copyOf(arcTargets[u], k * 2);
+                    arcWeights[u] = Arrays.copyOf(arcWeights[u], k * 2);
+                    arcMiddles[u] = Arrays.copyOf(arcMiddles[u], k * 2);
+                }
+                arcTargets[u][k] = w;
+            }
+
+            arcWeights[u][k] = weight;
+            arcMiddles[u][k] = middle;
+        }
+
+        private void removeArc(int u, int w) {
+            int k = findArc(u, w);
+            int last = --degree[u];
+
+            arcTargets[u][k] = arcTargets[u][last];
+            arcWeights[u][k] = arcWeights[u][last];
+            arcMiddles[u][k] = arcMiddles[u][last];
+        }
+
+        // Bounded Dijkstra from source among uncontracted places, avoiding the one being contracted.
+        // Stops once every marked neighbour has been settled or the limits are hit.
+        private void witnessSearch(int source, int avoid, long limit, int targets, int settleLimit) {
+            touchWitness(source, 0);
+            witnessQueue.push(source, 0);
+            int settled = 0;
+
+            while (!witnessQueue.isEmpty() && settled < settleLimit && targets > 0) {
+                long distance = witnessQueue.peekPriority();
+                int current = witnessQueue.poll();
+                settled++;
+
+                if (distance > limit) {
+                    break;
+                }
+                if (witnessTarget[current] == witnessStamp) {
+                    targets--;
+                }
+
+                int[] nextTargets = arcTargets[current];
+                long[] nextWeights = arcWeights[current];
+
+                for (int k = 0; k < degree[current]; k++) {
+                    int next = nextTargets[k];
+                    long candidate = distance + nextWeights[k];
+
+                    if (next != avoid && candidate < witnessDistance[next]) {
+                        touchWitness(next, candidate);
+                        witnessQueue.push(next, candidate);
+                    }
+                }
+            }
+
+            witnessQueue.clear();
+        }
+
+        // Arcs are sorted by target within each place for lookups during unpacking
+        private void compile() {
+            upOffsets = new int[size + 1];
+
+            for (int node = 0; node < size; node++) {
+                upOffsets[node + 1] = upOffsets[node] + degree[node];
+            }
+
+            upTargets = new int[upOffsets[size]];
+            upWeights = new long[upTargets.length];
+            upMiddles = new int[upTargets.length];
+            long[] row = new long[0];
+
+            for (int node = 0; node < size; node++) {
+                if (row.length < degree[node]) {
+                    row = new long[degree[node]];
+                }
+                for (int k = 0; k < degree[node]; k++) {
+                    row[k] = ((long) arcTargets[node][k] << 32) | k;
+                }
+                Arrays.sort(row, 0, degree[node]);
+
+                for (int k = 0; k < degree[node]; k++) {
+                    int arc = (int) row[k];
+                    int slot = upOffsets[node] + k;
+
+                    upTargets[slot] = arcTargets[node][arc];
+                    upWeights[slot] = arcWeights[node][arc];
+                    upMiddles[slot] = arcMiddles[node][arc];
+                }
+
+                arcTargets[node] = null;
+                arcWeights[node] = null;
+                arcMiddles[node] = null;
+            }
+        }
+
+        private void touchWitness(int node, long distance) {
+            if (witnessDistance[node] == Long.MAX_VALUE) {
+                if (witnessTouchedCount == witnessTouched.length) {
+                    witnessTouched = Arrays.copyOf(witnessTouched, witnessTouchedCount * 2);
+                }
+                witnessTouched[witnessTouchedCount++] = node;
+            }
+
+            witnessDistance[node] = distance;
+        }
+
+        private void resetWitness() {
+            for (int i = 0; i < witnessTouchedCount; i++) {
+                witnessDistance[witnessTouched[i]] = Long.MAX_VALUE;
+            }
+            witnessTouchedCount = 0;
+        }
+    }
+}
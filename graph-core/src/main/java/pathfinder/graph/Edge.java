@@ -1,7 +1,11 @@
+package pathfinder.graph;
+
 import java.io.Serializable;
 import java.util.Objects;
 
 public class Edge<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final T destination;
     private final String roadName;
     private int weight;
@@ -31,14 +35,15 @@ public class Edge<T> implements Serializable {
         this.weight = weight;
     }
 
+    // Must not depend on the weight, which can change while the edge is in a hash set
     @Override
     public int hashCode() {
-        return Objects.hash(destination, roadName, weight);
+        return Objects.hash(destination, roadName);
     }
 
     @Override
     public boolean equals(Object other) {
-        if (other instanceof Edge edge) {
+        if (other instanceof Edge<?> edge) {
             return Objects.equals(destination, edge.destination) && Objects.equals(roadName, edge.roadName);
         }
         return false;
@@ -0,0 +1,44 @@
+package pathfinder.graph;
+
+// Straight-line distance scaled by the smallest weight per unit of distance among
+// all connections. No path can be cheaper than that ratio times its length, and no
+// path is shorter than the straight line, so the estimate is admissible.
+public class EuclideanHeuristic<T extends Place> implements Heuristic<T> {
+    private final double ratio;
+
+    public EuclideanHeuristic(Graph<T> graph) {
+        double minimum = Double.POSITIVE_INFINITY;
+
+        for (T node : graph.getNodes()) {
+            for (Edge<T> edge : graph.getEdgesFrom(node)) {
+                double distance = distance(node, edge.getDestination());
+
+                if (distance > 0) {
+                    minimum = Math.min(minimum, edge.getWeight() / distance);
+                }
+            }
+        }
+
+        ratio = Double.isInfinite(minimum) ? 0 : minimum;
+    }
+
+    public EuclideanHeuristic(double ratio) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.ratio = ratio;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public long estimate(T node, T target) {
+        return (long) Math.floor(ratio * distance(node, target));
+    }
+
+    private static double distance(Place a, Place b) {
+        return Math.hypot(a.getxPos() - b.getxPos(), a.getyPos() - b.getyPos());
+    }
+}
@@ -1,3 +1,5 @@
+package pathfinder.graph;
+
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -23,4 +25,9 @@ public interface Graph<T> {
     boolean pathExists(T from, T to);
 
     List<Edge<T>> getPath(T from, T to);
+
+    // Up to k loopless paths from from to to, cheapest first
+    default List<List<Edge<T>>> getPaths(T from, T to, int k) {
+        return new KShortestPaths<>(this).find(from, to, k);
+    }
 }
@@ -0,0 +1,86 @@
+package pathfinder.graph;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Builds a graph from GraphReader callbacks, creating one node per place through the factory
+public class GraphBuilder<T> implements GraphReader.Handler {
+    public interface PlaceFactory<T> {
+        T create(String name, double x, double y);
+    }
+
+    private final Graph<T> graph;
+    private final PlaceFactory<T> factory;
+    private final Map<String, T> places = new HashMap<>();
+    private String image;
+
+    public GraphBuilder(Graph<T> graph, PlaceFactory<T> factory) {
+        this.graph = graph;
+        this.factory = factory;
+    }
+
+    public static <T> GraphBuilder<T> read(Path path, Graph<T> graph, PlaceFactory<T> factory) throws IOException {
+        GraphBuilder<T> builder = new GraphBuilder<>(graph, factory);
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            new GraphReader(reader).read(builder);
+        }
+
+        return builder;
+    }
+
+    public void image(String image) {
+        this.image = image;
+    }
+
+    // A place may share its name with an earlier one, as the map editor allows. Both are
+    // added and the name refers to the later one from then on, like the original loader.
+    public void place(String name, double x, double y) {
+        T node = factory.create(name, x, y);
+
+        graph.add(node);
+        places.put(name, node);
+    }
+
+    public void connection(String from, String to, String name, int weight) {
+        T a = place(from);
+        T b = place(to);
+
+        // Older files list every connection once from each end, the second one is already there
+        if (graph.getEdgeBetween(a, b) != null) {
+            return;
+        }
+
+        graph.connect(a, b, name, weight);
+    }
+
+    // Removes the place from the graph and forgets its name, so it can be added again
+    public void removePlace(String name) {
+        graph.remove(place(name));
+        places.remove(name);
+    }
+
+    public Graph<T> getGraph() {
+        return graph;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public T place(String name) {
+        T node = places.get(name);
+
+        if (node == null) {
+            throw new NoSuchElementException("Unknown place " + name);
+        }
+
+        return node;
+    }
+}
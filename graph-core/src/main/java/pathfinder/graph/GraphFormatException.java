@@ -0,0 +1,24 @@
+package pathfinder.graph;
+
+import java.io.IOException;
+
+public class GraphFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int line;
+    private final int column;
+
+    public GraphFormatException(String message, int line, int column) {
+        super(String.format("%d:%d: %s", line, column, message));
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,503 @@
+package pathfinder.graph;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Append-only log of the changes made to a graph since its snapshot, a map file in the
+// text format. Register the journal as a listener on the graph; changes are kept in
+// memory until sync() appends them and forces the journal to disk, so a save costs
+// O(changes). The journal file is only created by the first sync that has changes.
+//
+// The journal's first line names the snapshot it applies to by length and CRC-32, and
+// every later record is one change, each field prefixed by its length in UTF-8 bytes so
+// names may hold any character:
+//
+//   add name x y   remove name   connect from to road weight   disconnect from to
+//   weight from to weight        written as  add;1:A;3:1.0;3:2.0\n
+//
+// Each sync ends its batch of changes with a commit record holding the batch's CRC-32.
+// Only batches with a matching commit are replayed, so a write torn by a crash is
+// ignored as a whole. When a sync leaves the journal larger than half its snapshot, a
+// background compaction writes a new snapshot of the synced state and a new journal
+// holding whatever was synced in the meantime, then renames both into place. A crash
+// between the two renames is recovered on the next open from the new journal's header.
+public class GraphJournal<T extends Place> implements GraphListener<T>, Closeable {
+    public static final String EXTENSION = ".journal";
+
+    private static final String HEADER = "#journal";
+    private static final String COMMIT = "commit";
+    private static final String TEMP = ".tmp";
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+
+    private final Path snapshot;
+    private final Path journal;
+    private final String image;
+    private final Graph<T> graph;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graph-journal-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Null until the journal file exists
+    private FileChannel channel;
+    private String header;
+    private long snapshotLength;
+    private boolean compacting;
+    private IOException compactionFailure;
+
+    private GraphJournal(Path snapshot, String image, Graph<T> graph, String header, long snapshotLength)
+            throws IOException {
+        this.snapshot = snapshot;
+        this.journal = journalOf(snapshot);
+        this.image = image;
+        this.graph = graph;
+        this.header = header;
+        this.snapshotLength = snapshotLength;
+        channel = Files.exists(journal) ? openJournal(journal) : null;
+    }
+
+    public static Path journalOf(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + EXTENSION);
+    }
+
+    // Reads the snapshot through the handler, normally the builder itself or a wrapper
+    // around it, then replays the journal on the builder's graph
+    public static <T extends Place> GraphJournal<T> open(Path snapshot, GraphBuilder<T> builder,
+            GraphReader.Handler handler) throws IOException {
+        CRC32 crc = new CRC32();
+
+        try (InputStream in = new CheckedInputStream(Files.newInputStream(snapshot), crc)) {
+            new GraphReader(new InputStreamReader(in, StandardCharsets.UTF_8)).read(handler);
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        long length = Files.size(snapshot);
+        String header = header(length, crc.getValue());
+        Path journal = journalOf(snapshot);
+        Path journalTemp = tempOf(journal);
+
+        // A compaction that renamed its snapshot but not its journal left the journal
+        // for the new snapshot behind
+        if (Files.exists(journalTemp)) {
+            if (header.equals(firstLine(journalTemp))) {
+                Files.move(journalTemp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(journalTemp);
+            }
+        }
+        Files.deleteIfExists(tempOf(snapshot));
+
+        if (Files.exists(journal)) {
+            long committed = replay(journal, header, builder);
+
+            // Cut off an uncommitted last batch so later batches follow the committed ones
+            try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                channel.truncate(committed);
+            }
+        }
+
+        return new GraphJournal<>(snapshot, builder.getImage(), builder.getGraph(), header, length);
+    }
+
+    public static <T extends Place> GraphJournal<T> open(Path snapshot, GraphBuilder<T> builder) throws IOException {
+        return open(snapshot, builder, builder);
+    }
+
+    // Writes the graph as a new snapshot without a journal. An old journal is first set
+    // aside where open() looks for one left by a compaction: it is moved back while its
+    // snapshot is still in place and deleted once the new snapshot has replaced it.
+    public static <T extends Place> GraphJournal<T> create(Path snapshot, String image, Graph<T> graph)
+            throws IOException {
+        Path journal = journalOf(snapshot);
+        CRC32 crc = new CRC32();
+        long length = writeSnapshot(tempOf(snapshot), image, graph, crc);
+
+        if (Files.exists(journal)) {
+            Files.move(journal, tempOf(journal), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(tempOf(snapshot), snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(tempOf(journal));
+        forceDirectory(snapshot);
+
+        return new GraphJournal<>(snapshot, image, graph, header(length, crc.getValue()), length);
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public synchronized boolean hasPendingChanges() {
+        return pending.size() > 0;
+    }
+
+    // Size of the journal on disk, pending changes not included, 0 if there is none yet
+    public synchronized long size() throws IOException {
+        return channel == null ? 0 : channel.size();
+    }
+
+    // The last background compaction's error, or null if it succeeded
+    public synchronized IOException getCompactionFailure() {
+        return compactionFailure;
+    }
+
+    // Appends the pending changes as one committed batch and forces them to disk
+    public synchronized void sync() throws IOException {
+        append();
+
+        if (channel != null && !compacting && channel.size() > Math.max(MIN_COMPACTION_SIZE, snapshotLength / 2)) {
+            GraphSnapshot<T> state = new GraphSnapshot<>(graph);
+            long synced = channel.size();
+
+            compacting = true;
+            compactor.execute(() -> {
+                try {
+                    compact(state, synced);
+                } catch (IOException e) {
+                    synchronized (this) {
+                        compactionFailure = e;
+                    }
+                } finally {
+                    synchronized (this) {
+                        compacting = false;
+                    }
+                }
+            });
+        }
+    }
+
+    // Drops the changes made since the last sync and reads the synced state into the
+    // builder, returning the journal for it. This journal is closed and its graph left
+    // as it is.
+    public GraphJournal<T> discard(GraphBuilder<T> builder) throws IOException {
+        abandon();
+
+        return open(snapshot, builder);
+    }
+
+    // Closes the journal, dropping the changes made since the last sync
+    public void abandon() throws IOException {
+        synchronized (this) {
+            pending.reset();
+        }
+        close();
+    }
+
+    // Waits for a running compaction, syncs pending changes and closes the journal
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+
+        try {
+            compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            try {
+                append();
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void nodeAdded(T node) {
+        record("add", node.getName(), Double.toString(node.getxPos()), Double.toString(node.getyPos()));
+    }
+
+    @Override
+    public synchronized void nodeRemoved(T node) {
+        record("remove", node.getName());
+    }
+
+    @Override
+    public synchronized void connected(T a, T b, String name, int weight) {
+        record("connect", a.getName(), b.getName(), name, Integer.toString(weight));
+    }
+
+    @Override
+    public synchronized void disconnected(T a, T b) {
+        record("disconnect", a.getName(), b.getName());
+    }
+
+    @Override
+    public synchronized void weightChanged(T a, T b, int weight) {
+        record("weight", a.getName(), b.getName(), Integer.toString(weight));
+    }
+
+    private void record(String operation, String... fields) {
+        writeRecord(pending, operation, fields);
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, String operation, String... fields) {
+        out.writeBytes(operation.getBytes(StandardCharsets.UTF_8));
+
+        for (String field : fields) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+
+            out.writeBytes((";" + bytes.length + ":").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(bytes);
+        }
+        out.write('\n');
+    }
+
+    // Writes the pending changes and their commit record, creating the journal first if
+    // there is none, and forces them to disk
+    private void append() throws IOException {
+        if (pending.size() == 0) {
+            return;
+        }
+
+        if (channel == null) {
+            writeJournalTemp(journal, header, null, 0);
+            Files.move(tempOf(journal), journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(journal);
+            channel = openJournal(journal);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(pending.toByteArray());
+        writeRecord(pending, COMMIT, String.format("%08x", crc.getValue()));
+
+        ByteBuffer bytes = ByteBuffer.wrap(pending.toByteArray());
+
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        pending.reset();
+        channel.force(false);
+    }
+
+    // Runs on the compaction thread. The snapshot is written without holding the lock;
+    // the journal's tail past synced is copied and both files renamed while holding it.
+    private void compact(Graph<T> state, long synced) throws IOException {
+        CRC32 crc = new CRC32();
+        long length = writeSnapshot(tempOf(snapshot), image, state, crc);
+
+        synchronized (this) {
+            writeJournalTemp(journal, header(length, crc.getValue()), channel, synced);
+
+            Files.move(tempOf(snapshot), snapshot, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempOf(journal), journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(snapshot);
+
+            channel.close();
+            channel = openJournal(journal);
+            header = header(length, crc.getValue());
+            snapshotLength = length;
+            compactionFailure = null;
+        }
+    }
+
+    private static <T extends Place> long writeSnapshot(Path path, String image, Graph<T> graph, CRC32 crc)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new CheckedOutputStream(Channels.newOutputStream(out), crc), StandardCharsets.UTF_8), 1 << 16);
+
+            GraphWriter.write(writer, image, graph, ForkJoinPool.commonPool());
+            writer.flush();
+            out.force(true);
+
+            return out.size();
+        }
+    }
+
+    // The header followed by the tail of an existing journal from the given position
+    private static void writeJournalTemp(Path journal, String header, FileChannel tail, long from)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(tempOf(journal), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(ByteBuffer.wrap((header + "\n").getBytes(StandardCharsets.UTF_8)));
+
+            if (tail != null) {
+                for (long position = from; position < tail.size();) {
+                    position += tail.transferTo(position, tail.size() - position, out);
+                }
+            }
+            out.force(true);
+        }
+    }
+
+    // Readable as well so a compaction can copy its tail, writes go to the end
+    private static FileChannel openJournal(Path journal) throws IOException {
+        FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        return channel.position(channel.size());
+    }
+
+    // Applies the committed batches and returns the length of the journal up to the end
+    // of the last one
+    private static <T extends Place> long replay(Path journal, String header, GraphBuilder<T> builder)
+            throws IOException {
+        byte[] bytes = Files.readAllBytes(journal);
+        int headerEnd = indexOf(bytes, '\n', 0);
+
+        if (headerEnd < 0) {
+            throw new GraphFormatException("Journal has no header", 1, 1);
+        }
+        if (!header.equals(new String(bytes, 0, headerEnd, StandardCharsets.UTF_8))) {
+            throw new GraphFormatException("Journal does not belong to this snapshot", 1, 1);
+        }
+
+        List<String[]> batch = new ArrayList<>();
+        int committed = headerEnd + 1;
+        int record = 1;
+        int[] end = new int[1];
+
+        // Stops at the first record that cannot be read, past the last commit
+        for (int start = committed; start < bytes.length; start = end[0]) {
+            String[] fields = readRecord(bytes, start, end);
+
+            if (fields == null) {
+                break;
+            }
+            if (!fields[0].equals(COMMIT)) {
+                batch.add(fields);
+                continue;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes, committed, start - committed);
+
+            if (fields.length != 2 || !fields[1].equals(String.format("%08x", crc.getValue()))) {
+                break;
+            }
+            for (String[] change : batch) {
+                apply(change, builder, ++record);
+            }
+            batch.clear();
+            committed = end[0];
+        }
+
+        return committed;
+    }
+
+    private static <T extends Place> void apply(String[] fields, GraphBuilder<T> builder, int record)
+            throws GraphFormatException {
+        Graph<T> graph = builder.getGraph();
+
+        try {
+            switch (fields[0]) {
+            case "add" -> builder.place(fields[1], Double.parseDouble(fields[2]), Double.parseDouble(fields[3]));
+            case "remove" -> builder.removePlace(fields[1]);
+            case "connect" -> graph.connect(builder.place(fields[1]), builder.place(fields[2]), fields[3],
+                    Integer.parseInt(fields[4]));
+            case "disconnect" -> graph.disconnect(builder.place(fields[1]), builder.place(fields[2]));
+            case "weight" -> graph.setConnectionWeight(builder.place(fields[1]), builder.place(fields[2]),
+                    Integer.parseInt(fields[3]));
+            default -> throw new IllegalArgumentException("Unknown operation " + fields[0]);
+            }
+        } catch (RuntimeException e) {
+            throw new GraphFormatException(String.valueOf(e.getMessage()), record, 1);
+        }
+    }
+
+    // The operation and fields of the record at start, storing where it ends in end[0],
+    // or null if it is cut off or malformed
+    private static String[] readRecord(byte[] bytes, int start, int[] end) {
+        List<String> fields = new ArrayList<>();
+        int position = start;
+
+        while (position < bytes.length && bytes[position] != ';' && bytes[position] != '\n') {
+            position++;
+        }
+        fields.add(new String(bytes, start, position - start, StandardCharsets.UTF_8));
+
+        while (position < bytes.length && bytes[position] == ';') {
+            int colon = indexOf(bytes, ':', position + 1);
+
+            if (colon < 0 || colon == position + 1 || colon - position > 10) {
+                return null;
+            }
+
+            int length = 0;
+            for (int digit = position + 1; digit < colon; digit++) {
+                if (bytes[digit] < '0' || bytes[digit] > '9') {
+                    return null;
+                }
+                length = length * 10 + bytes[digit] - '0';
+            }
+            if (length > bytes.length - colon - 1) {
+                return null;
+            }
+
+            fields.add(new String(bytes, colon + 1, length, StandardCharsets.UTF_8));
+            position = colon + 1 + length;
+        }
+
+        if (position >= bytes.length || bytes[position] != '\n') {
+            return null;
+        }
+        end[0] = position + 1;
+
+        return fields.toArray(new String[0]);
+    }
+
+    private static int indexOf(byte[] bytes, char value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String header(long length, long crc) {
+        return String.format("%s;%d;%08x", HEADER, length, crc);
+    }
+
+    private static String firstLine(Path path) throws IOException {
+        try (var lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            return lines.findFirst().orElse("");
+        }
+    }
+
+    private static Path tempOf(Path path) {
+        return path.resolveSibling(path.getFileName() + TEMP);
+    }
+
+    // Makes the renames in the directory durable, where the platform allows it
+    private static void forceDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform, the renames themselves are still atomic
+        }
+    }
+}
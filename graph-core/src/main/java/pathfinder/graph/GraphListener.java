@@ -0,0 +1,20 @@
+package pathfinder.graph;
+
+// Told about every change made to a ListGraph, after the change has been applied.
+// Removing a node also drops its connections without separate disconnected calls.
+public interface GraphListener<T> {
+    default void nodeAdded(T node) {
+    }
+
+    default void nodeRemoved(T node) {
+    }
+
+    default void connected(T a, T b, String name, int weight) {
+    }
+
+    default void disconnected(T a, T b) {
+    }
+
+    default void weightChanged(T a, T b, int weight) {
+    }
+}
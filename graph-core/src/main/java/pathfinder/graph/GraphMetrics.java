@@ -0,0 +1,155 @@
+package pathfinder.graph;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Counts and latency histograms per graph operation, plus how many nodes and edges
+// each search touched. Filled in by InstrumentedGraph and readable directly or, once
+// registered, over JMX.
+public class GraphMetrics implements GraphMetricsMXBean {
+    public enum Operation {
+        ADD, REMOVE, CONNECT, DISCONNECT, SET_CONNECTION_WEIGHT, GET_EDGES_FROM, GET_EDGE_BETWEEN, PATH_EXISTS,
+        GET_PATH, GET_PATHS
+    }
+
+    private final Histogram[] latencies = new Histogram[Operation.values().length];
+    private final Histogram nodesExpanded = new Histogram();
+    private final Histogram edgesRelaxed = new Histogram();
+
+    public GraphMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+    }
+
+    public void record(Operation operation, long nanos) {
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    public void recordSearch(long expanded, long relaxed) {
+        nodesExpanded.record(expanded);
+        edgesRelaxed.record(relaxed);
+    }
+
+    // Latencies of the operation in nanoseconds
+    public Histogram latency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public Histogram nodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public Histogram edgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    // Publishes these metrics in the platform MBean server as
+    // pathfinder.graph:type=GraphMetrics,name=<name>
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("pathfinder.graph:type=GraphMetrics,name=" + ObjectName.quote(name));
+
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+
+        return objectName;
+    }
+
+    public List<OperationSummary> getOperations() {
+        List<OperationSummary> summaries = new ArrayList<>(latencies.length);
+
+        for (Operation operation : Operation.values()) {
+            summaries.add(new OperationSummary(operation, latency(operation)));
+        }
+
+        return summaries;
+    }
+
+    public long getSearches() {
+        return nodesExpanded.count();
+    }
+
+    public double getMeanNodesExpanded() {
+        return nodesExpanded.mean();
+    }
+
+    public long getP99NodesExpanded() {
+        return nodesExpanded.valueAt(0.99);
+    }
+
+    public long getMaxNodesExpanded() {
+        return nodesExpanded.max();
+    }
+
+    public double getMeanEdgesRelaxed() {
+        return edgesRelaxed.mean();
+    }
+
+    public long getP99EdgesRelaxed() {
+        return edgesRelaxed.valueAt(0.99);
+    }
+
+    public long getMaxEdgesRelaxed() {
+        return edgesRelaxed.max();
+    }
+
+    public void reset() {
+        for (Histogram latency : latencies) {
+            latency.reset();
+        }
+        nodesExpanded.reset();
+        edgesRelaxed.reset();
+    }
+
+    // The latencies of one operation at the time it was taken, in microseconds
+    public static class OperationSummary {
+        private final String operation;
+        private final long count;
+        private final double mean;
+        private final double p50;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        OperationSummary(Operation operation, Histogram latency) {
+            this.operation = operation.name();
+            count = latency.count();
+            mean = latency.mean() / 1e3;
+            p50 = latency.valueAt(0.5) / 1e3;
+            p99 = latency.valueAt(0.99) / 1e3;
+            p999 = latency.valueAt(0.999) / 1e3;
+            max = latency.max() / 1e3;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return mean;
+        }
+
+        public double getP50Micros() {
+            return p50;
+        }
+
+        public double getP99Micros() {
+            return p99;
+        }
+
+        public double getP999Micros() {
+            return p999;
+        }
+
+        public double getMaxMicros() {
+            return max;
+        }
+    }
+}
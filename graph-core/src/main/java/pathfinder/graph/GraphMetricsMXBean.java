@@ -0,0 +1,25 @@
+package pathfinder.graph;
+
+import java.util.List;
+
+// What GraphMetrics publishes over JMX. Latencies are in microseconds, percentiles
+// are upper bounds with the precision of Histogram.
+public interface GraphMetricsMXBean {
+    List<GraphMetrics.OperationSummary> getOperations();
+
+    long getSearches();
+
+    double getMeanNodesExpanded();
+
+    long getP99NodesExpanded();
+
+    long getMaxNodesExpanded();
+
+    double getMeanEdgesRelaxed();
+
+    long getP99EdgesRelaxed();
+
+    long getMaxEdgesRelaxed();
+
+    void reset();
+}
@@ -0,0 +1,28 @@
+package pathfinder.graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// One operation on an InstrumentedGraph. Only operations slower than the threshold are
+// recorded unless the recording's settings lower it.
+@Name("pathfinder.graph.Operation")
+@Label("Graph Operation")
+@Category("Pathfinder")
+@Description("An operation on an instrumented graph")
+@StackTrace(false)
+@Threshold("1 ms")
+final class GraphOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Nodes Expanded")
+    long nodesExpanded;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+}
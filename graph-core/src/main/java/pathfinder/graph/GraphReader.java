@@ -0,0 +1,260 @@
+package pathfinder.graph;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Streaming reader for the .graph text format:
+//
+//   file:<image>
+//   <place>;<x>;<y>;<place>;<x>;<y>;...
+//   <from>;<to>;<road>;<weight>        (one connection per line)
+//
+// The input is scanned through a fixed char buffer one field at a time, so memory
+// stays bounded no matter how long the place line is.
+public class GraphReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15 };
+
+    public interface Handler {
+        void image(String image);
+
+        void place(String name, double x, double y);
+
+        void connection(String from, String to, String name, int weight);
+    }
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private final Map<String, String> roadNames = new HashMap<>();
+    private int position;
+    private int limit;
+    private int line = 1;
+    private int column = 1;
+    private int fieldLine;
+    private int fieldColumn;
+    private int recordLine;
+    private int recordColumn;
+
+    public GraphReader(Reader in) {
+        this.in = in;
+    }
+
+    public void read(Handler handler) throws IOException {
+        int delimiter = readField();
+
+        if (delimiter == -1 && field.length() == 0) {
+            throw error("Empty file");
+        }
+        if (delimiter == ';') {
+            throw error("Expected end of line after the image");
+        }
+        markRecord();
+        handle(() -> handler.image(field.toString()));
+
+        if (delimiter == '\n') {
+            delimiter = readPlaces(handler);
+        }
+
+        while (delimiter != -1) {
+            delimiter = readConnection(handler);
+        }
+    }
+
+    // All places are on the second line, three fields each
+    private int readPlaces(Handler handler) throws IOException {
+        int delimiter;
+
+        do {
+            delimiter = readField();
+            markRecord();
+
+            if (field.length() == 0 && delimiter != ';') {
+                return delimiter;
+            }
+
+            String name = field.toString();
+            expect(delimiter, "x coordinate");
+            delimiter = readField();
+            double x = parseDouble();
+            expect(delimiter, "y coordinate");
+            delimiter = readField();
+            double y = parseDouble();
+
+            handle(() -> handler.place(name, x, y));
+        } while (delimiter == ';');
+
+        return delimiter;
+    }
+
+    private int readConnection(Handler handler) throws IOException {
+        int delimiter = readField();
+        markRecord();
+
+        if (field.length() == 0 && delimiter != ';') {
+            return delimiter;
+        }
+
+        String from = field.toString();
+        expect(delimiter, "destination");
+        delimiter = readField();
+        String to = field.toString();
+        expect(delimiter, "road name");
+        delimiter = readField();
+        String name = roadNames.computeIfAbsent(field.toString(), road -> road);
+        expect(delimiter, "weight");
+        delimiter = readField();
+        int weight = parseInt();
+
+        if (delimiter == ';') {
+            throw error("Expected end of line after the weight");
+        }
+
+        handle(() -> handler.connection(from, to, name, weight));
+
+        return delimiter;
+    }
+
+    private void expect(int delimiter, String what) throws GraphFormatException {
+        if (delimiter != ';') {
+            throw error("Expected " + what);
+        }
+    }
+
+    private void markRecord() {
+        recordLine = fieldLine;
+        recordColumn = fieldColumn;
+    }
+
+    // Rejections from the handler are reported at the start of the offending record
+    private void handle(Runnable action) throws GraphFormatException {
+        try {
+            action.run();
+        } catch (NoSuchElementException | IllegalArgumentException | IllegalStateException e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+
+            throw new GraphFormatException(message, recordLine, recordColumn);
+        }
+    }
+
+    // Reads up to the next ';', newline or end of input into field and returns the delimiter (-1 at the end)
+    private int readField() throws IOException {
+        field.setLength(0);
+        fieldLine = line;
+        fieldColumn = column;
+
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+
+            char c = buffer[position++];
+
+            if (c == '\n') {
+                line++;
+                column = 1;
+                return '\n';
+            }
+
+            column++;
+
+            if (c == ';') {
+                return ';';
+            }
+            if (c != '\r') {
+                field.append(c);
+            }
+        }
+    }
+
+    private int parseInt() throws GraphFormatException {
+        int length = field.length();
+        int value = 0;
+
+        if (length == 0 || length > 9) {
+            return parseIntSlow();
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = field.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return parseIntSlow();
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    private int parseIntSlow() throws GraphFormatException {
+        try {
+            return Integer.parseInt(field.toString());
+        } catch (NumberFormatException e) {
+            throw error("Invalid weight '" + field + "'");
+        }
+    }
+
+    // Plain decimals like 470.0 with at most 15 digits are exact as digits / 10^decimals,
+    // anything else goes through Double.parseDouble
+    private double parseDouble() throws GraphFormatException {
+        int length = field.length();
+        int i = 0;
+        boolean negative = false;
+        long digits = 0;
+        int digitCount = 0;
+        int decimals = 0;
+        boolean point = false;
+
+        if (length > 0 && field.charAt(0) == '-') {
+            negative = true;
+            i++;
+        }
+
+        for (; i < length; i++) {
+            char c = field.charAt(i);
+
+            if (c == '.' && !point) {
+                point = true;
+            } else if (c >= '0' && c <= '9' && digitCount < 15) {
+                digits = digits * 10 + (c - '0');
+                digitCount++;
+                if (point) {
+                    decimals++;
+                }
+            } else {
+                return parseDoubleSlow();
+            }
+        }
+
+        if (digitCount == 0) {
+            return parseDoubleSlow();
+        }
+
+        double value = digits / POWERS_OF_TEN[decimals];
+
+        return negative ? -value : value;
+    }
+
+    private double parseDoubleSlow() throws GraphFormatException {
+        try {
+            return Double.parseDouble(field.toString());
+        } catch (NumberFormatException e) {
+            throw error("Invalid coordinate '" + field + "'");
+        }
+    }
+
+    private GraphFormatException error(String message) {
+        return new GraphFormatException(message, fieldLine, fieldColumn);
+    }
+}
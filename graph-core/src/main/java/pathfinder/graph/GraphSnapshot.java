@@ -0,0 +1,467 @@
+package pathfinder.graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Read-only compressed sparse row copy of a graph. Node ids are dense ints, the
+// neighbours of node i are targets[offsets[i]] .. targets[offsets[i + 1] - 1]
+// sorted by id, with the weight and road name id of each edge at the same index.
+public class GraphSnapshot<T> implements Graph<T>, SearchObservable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final long UNREACHABLE = -1;
+    private static final int MATRIX_ROWS_PER_TASK = 4;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final Object[] nodes;
+    private final Map<T, Integer> ids = new HashMap<>();
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] nameIds;
+    private final String[] names;
+    private transient volatile SearchContextPool contexts;
+
+    public GraphSnapshot(Graph<T> graph) {
+        nodes = graph.getNodes().toArray();
+
+        for (int i = 0; i < nodes.length; i++) {
+            ids.put(node(i), i);
+        }
+
+        offsets = new int[nodes.length + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            offsets[i + 1] = offsets[i] + graph.getEdgesFrom(node(i)).size();
+        }
+
+        targets = new int[offsets[nodes.length]];
+        weights = new int[targets.length];
+        nameIds = new int[targets.length];
+
+        Map<String, Integer> nameTable = new HashMap<>();
+        List<String> nameList = new ArrayList<>();
+        long[] row = new long[0];
+
+        for (int i = 0; i < nodes.length; i++) {
+            Collection<Edge<T>> edges = graph.getEdgesFrom(node(i));
+            List<Edge<T>> edgeList = new ArrayList<>(edges);
+
+            // Sort the row by target id, keeping the original position in the low bits
+            if (row.length < edgeList.size()) {
+                row = new long[edgeList.size()];
+            }
+            for (int k = 0; k < edgeList.size(); k++) {
+                row[k] = ((long) ids.get(edgeList.get(k).getDestination()) << 32) | k;
+            }
+            Arrays.sort(row, 0, edgeList.size());
+
+            for (int k = 0; k < edgeList.size(); k++) {
+                Edge<T> edge = edgeList.get((int) row[k]);
+                int slot = offsets[i] + k;
+
+                targets[slot] = (int) (row[k] >>> 32);
+                weights[slot] = edge.getWeight();
+                nameIds[slot] = nameTable.computeIfAbsent(edge.getName(), name -> {
+                    nameList.add(name);
+                    return nameList.size() - 1;
+                });
+            }
+        }
+
+        names = nameList.toArray(new String[0]);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public int idOf(T node) {
+        Integer id = ids.get(node);
+
+        if (id == null) {
+            throw new NoSuchElementException();
+        }
+
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T node(int id) {
+        return (T) nodes[id];
+    }
+
+    public Set<T> getNodes() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    public Collection<Edge<T>> getEdgesFrom(T node) {
+        int id = idOf(node);
+        List<Edge<T>> edges = new ArrayList<>(offsets[id + 1] - offsets[id]);
+
+        for (int slot = offsets[id]; slot < offsets[id + 1]; slot++) {
+            edges.add(edgeAt(slot));
+        }
+
+        return Collections.unmodifiableList(edges);
+    }
+
+    public Edge<T> getEdgeBetween(T from, T to) {
+        int slot = slotOf(idOf(from), idOf(to));
+
+        return slot < 0 ? null : edgeAt(slot);
+    }
+
+    public boolean pathExists(T a, T b) {
+        Integer from = ids.get(a);
+        Integer to = ids.get(b);
+
+        if (from == null || to == null) {
+            return false;
+        }
+
+        SearchContext context = borrowContext();
+
+        try {
+            int[] stack = context.stack;
+            int top = 0;
+
+            context.begin();
+            context.visit(from);
+            stack[top++] = from;
+
+            while (top > 0) {
+                int current = stack[--top];
+
+                if (current == to) {
+                    return true;
+                }
+
+                context.expanded++;
+                context.relaxed += offsets[current + 1] - offsets[current];
+
+                for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                    if (context.visit(targets[slot])) {
+                        stack[top++] = targets[slot];
+                    }
+                }
+            }
+
+            return false;
+        } finally {
+            releaseContext(context);
+        }
+    }
+
+    public List<Edge<T>> getPath(T a, T b) {
+        return getPath(a, b, false, 0);
+    }
+
+    // getPath that gives up with a CancellationException once System.nanoTime() passes
+    // the deadline or the thread is interrupted, checked every DEADLINE_CHECK_INTERVAL pops
+    public List<Edge<T>> getPath(T a, T b, long deadline) {
+        return getPath(a, b, true, deadline);
+    }
+
+    private List<Edge<T>> getPath(T a, T b, boolean timed, long deadline) {
+        int from = idOf(a);
+        int to = idOf(b);
+
+        SearchContext context = borrowContext();
+
+        try {
+            IntMinHeap queue = context.queue;
+            int pops = 0;
+
+            context.begin();
+            context.reach(from, 0, -1);
+            queue.push(from, 0);
+
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+
+                if (current == to) {
+                    return gatherPath(to, context);
+                }
+                if (timed && ++pops % DEADLINE_CHECK_INTERVAL == 0) {
+                    if (System.nanoTime() - deadline > 0) {
+                        throw new CancellationException("Path search timed out");
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Path search interrupted");
+                    }
+                }
+
+                long distance = context.distance(current);
+
+                context.expanded++;
+                context.relaxed += offsets[current + 1] - offsets[current];
+
+                for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                    int next = targets[slot];
+                    long candidate = distance + weights[slot];
+
+                    if (candidate < context.distance(next)) {
+                        context.reach(next, candidate, slot);
+                        queue.push(next, candidate);
+                    }
+                }
+            }
+
+            return null;
+        } finally {
+            releaseContext(context);
+        }
+    }
+
+    public long[][] distanceMatrix(Collection<T> sources, Collection<T> targets) {
+        return distanceMatrix(sources, targets, ForkJoinPool.commonPool());
+    }
+
+    // Travel cost from every source (rows) to every target (columns), UNREACHABLE where
+    // there is no path. One Dijkstra per source, spread over the pool in small chunks.
+    // The targets are marked once for all of them, and each search starts by bumping
+    // the epoch of its thread's context instead of clearing a distance array.
+    public long[][] distanceMatrix(Collection<T> sources, Collection<T> targets, ForkJoinPool pool) {
+        int[] sourceIds = sources.stream().mapToInt(this::idOf).toArray();
+        int[] targetIds = targets.stream().mapToInt(this::idOf).toArray();
+        boolean[] isTarget = new boolean[nodes.length];
+        int distinct = 0;
+
+        for (int target : targetIds) {
+            if (!isTarget[target]) {
+                isTarget[target] = true;
+                distinct++;
+            }
+        }
+
+        long[][] matrix = new long[sourceIds.length][];
+
+        pool.invoke(new MatrixTask(sourceIds, targetIds, isTarget, distinct, matrix, 0, sourceIds.length));
+
+        return matrix;
+    }
+
+    private final class MatrixTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final int[] targets;
+        private final boolean[] isTarget;
+        private final int distinct;
+        private final long[][] matrix;
+        private final int start;
+        private final int end;
+
+        MatrixTask(int[] sources, int[] targets, boolean[] isTarget, int distinct, long[][] matrix, int start,
+                int end) {
+            this.sources = sources;
+            this.targets = targets;
+            this.isTarget = isTarget;
+            this.distinct = distinct;
+            this.matrix = matrix;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > MATRIX_ROWS_PER_TASK) {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(new MatrixTask(sources, targets, isTarget, distinct, matrix, start, middle),
+                        new MatrixTask(sources, targets, isTarget, distinct, matrix, middle, end));
+                return;
+            }
+
+            SearchContext context = borrowContext();
+
+            try {
+                for (int row = start; row < end; row++) {
+                    matrix[row] = distancesFrom(sources[row], targets, isTarget, distinct, context);
+                }
+            } finally {
+                releaseContext(context);
+            }
+        }
+    }
+
+    // Dijkstra that stops once every distinct target is settled
+    private long[] distancesFrom(int source, int[] targetIds, boolean[] isTarget, int remaining,
+            SearchContext context) {
+        IntMinHeap queue = context.queue;
+
+        context.begin();
+        context.reach(source, 0, -1);
+        queue.push(source, 0);
+
+        while (!queue.isEmpty() && remaining > 0) {
+            int current = queue.poll();
+            long distance = context.distance(current);
+
+            if (isTarget[current]) {
+                remaining--;
+            }
+
+            for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                int next = targets[slot];
+                long candidate = distance + weights[slot];
+
+                if (candidate < context.distance(next)) {
+                    context.reach(next, candidate, slot);
+                    queue.push(next, candidate);
+                }
+            }
+        }
+
+        long[] row = new long[targetIds.length];
+        for (int i = 0; i < targetIds.length; i++) {
+            long value = context.distance(targetIds[i]);
+            row[i] = value == Long.MAX_VALUE ? UNREACHABLE : value;
+        }
+
+        return row;
+    }
+
+    // Walks the predecessor slots twice, once to size the result and once to fill it
+    // backwards from to
+    private List<Edge<T>> gatherPath(int to, SearchContext context) {
+        int length = 0;
+        for (int slot = context.via(to); slot >= 0; slot = context.via(sourceOf(slot))) {
+            length++;
+        }
+
+        List<Edge<T>> path = new ArrayList<>(Collections.nCopies(length, null));
+
+        for (int slot = context.via(to); slot >= 0; slot = context.via(sourceOf(slot))) {
+            path.set(--length, edgeAt(slot));
+        }
+
+        return Collections.unmodifiableList(path);
+    }
+
+    SearchContext borrowContext() {
+        return contexts().borrow(nodes.length, nodes.length);
+    }
+
+    void releaseContext(SearchContext context) {
+        contexts().release(context);
+    }
+
+    @Override
+    public void addSearchObserver(SearchObserver observer) {
+        contexts().addObserver(observer);
+    }
+
+    @Override
+    public void removeSearchObserver(SearchObserver observer) {
+        contexts().removeObserver(observer);
+    }
+
+    // Created on first use, a deserialized snapshot starts without one
+    private SearchContextPool contexts() {
+        SearchContextPool pool = contexts;
+
+        if (pool == null) {
+            synchronized (this) {
+                if (contexts == null) {
+                    contexts = new SearchContextPool();
+                }
+                pool = contexts;
+            }
+        }
+
+        return pool;
+    }
+
+    // The node whose row contains the given slot
+    private int sourceOf(int slot) {
+        int low = 0;
+        int high = nodes.length - 1;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+
+            if (offsets[middle] <= slot) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    // First adjacency slot of the node, the row ends at firstSlot(node + 1)
+    int firstSlot(int node) {
+        return offsets[node];
+    }
+
+    int target(int slot) {
+        return targets[slot];
+    }
+
+    int weight(int slot) {
+        return weights[slot];
+    }
+
+    Edge<T> edgeBetween(int from, int to) {
+        int slot = slotOf(from, to);
+
+        return slot < 0 ? null : edgeAt(slot);
+    }
+
+    private int slotOf(int from, int to) {
+        int slot = Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to);
+
+        return slot < 0 ? -1 : slot;
+    }
+
+    private Edge<T> edgeAt(int slot) {
+        return new FixedEdge<>(node(targets[slot]), names[nameIds[slot]], weights[slot]);
+    }
+
+    // The snapshot never changes, and neither do the edges it hands out
+    private static final class FixedEdge<T> extends Edge<T> {
+        private static final long serialVersionUID = 1L;
+
+        FixedEdge(T destination, String name, int weight) {
+            super(destination, name, weight);
+        }
+
+        @Override
+        public void setWeight(int weight) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public void add(T node) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void connect(T node1, T node2, String name, int weight) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void setConnectionWeight(T node1, T node2, int weight) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void disconnect(T node1, T node2) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void remove(T node) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,212 @@
+package pathfinder.graph;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Writes a graph in the text format read by GraphReader: the image on the first line,
+// every place as name;x;y on the second, then each connection once as from;to;road;weight.
+// Places come sorted by name and every connection is written from the end that sorts
+// first, ordered by the other end, so the same graph always gives the same file.
+//
+// Lines are encoded into char buffers that are reused from chunk to chunk. Given a pool,
+// chunks of places have their connections encoded in parallel and written in order.
+public class GraphWriter {
+    private static final int PLACES_PER_CHUNK = 4096;
+    private static final int FLUSH_SIZE = 1 << 16;
+
+    private GraphWriter() {
+    }
+
+    public static <T extends Place> void write(Writer out, String image, Graph<T> graph) throws IOException {
+        write(out, image, graph, null);
+    }
+
+    public static <T extends Place> void write(Writer out, String image, Graph<T> graph, ForkJoinPool pool)
+            throws IOException {
+        List<T> places = new ArrayList<>(graph.getNodes());
+        places.sort(Comparator.comparing(Place::getName));
+
+        Map<T, Integer> ranks = new HashMap<>(places.size() * 2);
+        for (int i = 0; i < places.size(); i++) {
+            ranks.put(places.get(i), i);
+        }
+
+        Buffer buffer = new Buffer();
+        buffer.append(image).append('\n');
+
+        for (int i = 0; i < places.size(); i++) {
+            T place = places.get(i);
+
+            if (i > 0) {
+                buffer.append(';');
+            }
+            buffer.append(place.getName()).append(';').append(place.getxPos()).append(';').append(place.getyPos());
+
+            if (buffer.length() > FLUSH_SIZE) {
+                buffer.writeTo(out);
+            }
+        }
+        buffer.append('\n');
+        buffer.writeTo(out);
+
+        int chunks = (places.size() + PLACES_PER_CHUNK - 1) / PLACES_PER_CHUNK;
+
+        if (pool == null || chunks < 2) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                encodeConnections(graph, places, ranks, chunk, buffer);
+                buffer.writeTo(out);
+            }
+            return;
+        }
+
+        // A window of a few chunks per thread at a time keeps the encoded text bounded
+        int window = 2 * pool.getParallelism();
+        Buffer[] buffers = new Buffer[window];
+        Arrays.setAll(buffers, i -> new Buffer());
+
+        for (int first = 0; first < chunks; first += window) {
+            List<Callable<Buffer>> tasks = new ArrayList<>(window);
+
+            for (int chunk = first; chunk < Math.min(chunks, first + window); chunk++) {
+                int current = chunk;
+                Buffer into = buffers[chunk - first];
+
+                tasks.add(() -> encodeConnections(graph, places, ranks, current, into));
+            }
+
+            for (Future<Buffer> encoded : pool.invokeAll(tasks)) {
+                try {
+                    encoded.get().writeTo(out);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while writing", e);
+                } catch (ExecutionException e) {
+                    throw new IOException("Could not encode connections", e.getCause());
+                }
+            }
+        }
+    }
+
+    // Connections of the chunk's places whose other end sorts after them (or is the
+    // place itself), ordered by that end
+    private static <T extends Place> Buffer encodeConnections(Graph<T> graph, List<T> places, Map<T, Integer> ranks,
+            int chunk, Buffer buffer) {
+        long[] row = new long[0];
+
+        for (int i = chunk * PLACES_PER_CHUNK; i < Math.min(places.size(), (chunk + 1) * PLACES_PER_CHUNK); i++) {
+            T place = places.get(i);
+            Collection<Edge<T>> edges = graph.getEdgesFrom(place);
+            List<Edge<T>> edgeList = new ArrayList<>(edges);
+            int count = 0;
+
+            // Other end's rank in the high bits, position in the row in the low bits
+            if (row.length < edgeList.size()) {
+                row = new long[edgeList.size()];
+            }
+            for (int k = 0; k < edgeList.size(); k++) {
+                int rank = ranks.get(edgeList.get(k).getDestination());
+
+                if (rank >= i) {
+                    row[count++] = ((long) rank << 32) | k;
+                }
+            }
+            Arrays.sort(row, 0, count);
+
+            for (int k = 0; k < count; k++) {
+                Edge<T> edge = edgeList.get((int) row[k]);
+
+                buffer.append(place.getName()).append(';').append(edge.getDestination().getName()).append(';')
+                        .append(edge.getName()).append(';').append(edge.getWeight()).append('\n');
+            }
+        }
+
+        return buffer;
+    }
+
+    // Growable char buffer with allocation-free int formatting, emptied by writeTo
+    private static final class Buffer {
+        private char[] chars = new char[2 * FLUSH_SIZE];
+        private int length;
+
+        int length() {
+            return length;
+        }
+
+        Buffer append(char c) {
+            ensure(1);
+            chars[length++] = c;
+            return this;
+        }
+
+        Buffer append(String s) {
+            ensure(s.length());
+            s.getChars(0, s.length(), chars, length);
+            length += s.length();
+            return this;
+        }
+
+        Buffer append(int value) {
+            if (value == Integer.MIN_VALUE) {
+                return append(Integer.toString(value));
+            }
+
+            ensure(11);
+            if (value < 0) {
+                chars[length++] = '-';
+                value = -value;
+            }
+
+            int end = length + digits(value);
+            for (int i = end - 1; i >= length; i--) {
+                chars[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            length = end;
+
+            return this;
+        }
+
+        // Whole numbers, the usual case for map coordinates, are written like
+        // Double.toString writes them without going through a String
+        Buffer append(double value) {
+            if (value == Math.rint(value) && Math.abs(value) < 1e7 && !(value == 0 && 1 / value < 0)) {
+                return append((int) value).append('.').append('0');
+            }
+
+            return append(Double.toString(value));
+        }
+
+        void writeTo(Writer out) throws IOException {
+            out.write(chars, 0, length);
+            length = 0;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(2 * chars.length, length + extra));
+            }
+        }
+
+        private static int digits(int value) {
+            int digits = 1;
+
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+
+            return digits;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package pathfinder.graph;
+
+// Lower bound on the cost of getting from node to target. It must never overestimate,
+// and should not drop by more than an edge's weight when following that edge, or A*
+// can return a route that is not the shortest.
+public interface Heuristic<T> {
+    long estimate(T node, T target);
+}
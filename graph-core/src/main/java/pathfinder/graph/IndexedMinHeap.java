@@ -0,0 +1,127 @@
+package pathfinder.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class IndexedMinHeap<T> {
+    private final Map<T, Integer> positions = new HashMap<>();
+    private Object[] items = new Object[16];
+    private long[] priorities = new long[16];
+    private int size;
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(T item) {
+        return positions.containsKey(item);
+    }
+
+    // Inserts the item, or lowers its priority if it is already queued with a higher one
+    public void push(T item, long priority) {
+        Integer position = positions.get(item);
+
+        if (position == null) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+
+            items[size] = item;
+            priorities[size] = priority;
+            positions.put(item, size);
+            siftUp(size++);
+        } else if (priority < priorities[position]) {
+            priorities[position] = priority;
+            siftUp(position);
+        }
+    }
+
+    public long peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return priorities[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        T top = (T) items[0];
+        positions.remove(top);
+
+        size--;
+        if (size > 0) {
+            move(size, 0);
+            siftDown(0);
+        }
+        items[size] = null;
+
+        return top;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (priorities[parent] <= priorities[position]) {
+                return;
+            }
+
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < size && priorities[left] < priorities[smallest]) {
+                smallest = left;
+            }
+            if (right < size && priorities[right] < priorities[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        long priority = priorities[a];
+
+        move(b, a);
+        items[b] = item;
+        priorities[b] = priority;
+        index(b);
+    }
+
+    private void move(int from, int to) {
+        items[to] = items[from];
+        priorities[to] = priorities[from];
+        index(to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void index(int position) {
+        positions.put((T) items[position], position);
+    }
+}
@@ -0,0 +1,234 @@
+package pathfinder.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import pathfinder.graph.GraphMetrics.Operation;
+
+// Wraps a graph and times every operation on it into GraphMetrics, also emitting a
+// GraphOperationEvent for Flight Recorder. getNodes is passed through untimed.
+//
+// For a SearchObservable graph the searches behind pathExists, getPath and getPaths also
+// report how many nodes they expanded and edges they relaxed. The wrapper adds a
+// SearchObserver that the graph tells about each search as it ends, on the querying
+// thread, and the counts are added up for the query running on that thread. The graph
+// keeps any other observers, and detach() removes this one. Queries answered without
+// a search, from a cache or index, are timed but add nothing to the search counts.
+public class InstrumentedGraph<T> implements Graph<T> {
+    private final Graph<T> graph;
+    private final GraphMetrics metrics;
+    // Nodes expanded, edges relaxed and searches run so far by the query running on each
+    // thread
+    private final ThreadLocal<long[]> searchCounts = ThreadLocal.withInitial(() -> new long[3]);
+    private final SearchObserver observer = (expanded, relaxed) -> {
+        long[] counts = searchCounts.get();
+
+        counts[0] += expanded;
+        counts[1] += relaxed;
+        counts[2]++;
+    };
+
+    public InstrumentedGraph(Graph<T> graph) {
+        this(graph, new GraphMetrics());
+    }
+
+    public InstrumentedGraph(Graph<T> graph, GraphMetrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+
+        if (graph instanceof SearchObservable observable) {
+            observable.addSearchObserver(observer);
+        }
+    }
+
+    // Stops counting the graph's searches, for a wrapper no longer in use
+    public void detach() {
+        if (graph instanceof SearchObservable observable) {
+            observable.removeSearchObserver(observer);
+        }
+    }
+
+    public Graph<T> getGraph() {
+        return graph;
+    }
+
+    public GraphMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void add(T node) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            graph.add(node);
+        } finally {
+            finish(Operation.ADD, start, event);
+        }
+    }
+
+    @Override
+    public void connect(T node1, T node2, String name, int weight) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            graph.connect(node1, node2, name, weight);
+        } finally {
+            finish(Operation.CONNECT, start, event);
+        }
+    }
+
+    @Override
+    public void setConnectionWeight(T node1, T node2, int weight) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            graph.setConnectionWeight(node1, node2, weight);
+        } finally {
+            finish(Operation.SET_CONNECTION_WEIGHT, start, event);
+        }
+    }
+
+    @Override
+    public Set<T> getNodes() {
+        return graph.getNodes();
+    }
+
+    @Override
+    public Collection<Edge<T>> getEdgesFrom(T node) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            return graph.getEdgesFrom(node);
+        } finally {
+            finish(Operation.GET_EDGES_FROM, start, event);
+        }
+    }
+
+    @Override
+    public Edge<T> getEdgeBetween(T node1, T node2) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            return graph.getEdgeBetween(node1, node2);
+        } finally {
+            finish(Operation.GET_EDGE_BETWEEN, start, event);
+        }
+    }
+
+    @Override
+    public void disconnect(T node1, T node2) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            graph.disconnect(node1, node2);
+        } finally {
+            finish(Operation.DISCONNECT, start, event);
+        }
+    }
+
+    @Override
+    public void remove(T node) {
+        GraphOperationEvent event = begin();
+        long start = System.nanoTime();
+
+        try {
+            graph.remove(node);
+        } finally {
+            finish(Operation.REMOVE, start, event);
+        }
+    }
+
+    @Override
+    public boolean pathExists(T from, T to) {
+        GraphOperationEvent event = begin();
+        long[] counts = searchCounts.get();
+        long start = System.nanoTime();
+
+        Arrays.fill(counts, 0);
+
+        try {
+            return graph.pathExists(from, to);
+        } finally {
+            finishSearch(Operation.PATH_EXISTS, start, event, counts);
+        }
+    }
+
+    @Override
+    public List<Edge<T>> getPath(T from, T to) {
+        GraphOperationEvent event = begin();
+        long[] counts = searchCounts.get();
+        long start = System.nanoTime();
+
+        Arrays.fill(counts, 0);
+
+        try {
+            return graph.getPath(from, to);
+        } finally {
+            finishSearch(Operation.GET_PATH, start, event, counts);
+        }
+    }
+
+    @Override
+    public List<List<Edge<T>>> getPaths(T from, T to, int k) {
+        GraphOperationEvent event = begin();
+        long[] counts = searchCounts.get();
+        long start = System.nanoTime();
+
+        Arrays.fill(counts, 0);
+
+        try {
+            return graph.getPaths(from, to, k);
+        } finally {
+            finishSearch(Operation.GET_PATHS, start, event, counts);
+        }
+    }
+
+    // When Flight Recorder is off the event is never committed and never escapes, so
+    // the JIT can drop it altogether
+    private static GraphOperationEvent begin() {
+        GraphOperationEvent event = new GraphOperationEvent();
+
+        event.begin();
+        return event;
+    }
+
+    private void finish(Operation operation, long start, GraphOperationEvent event) {
+        metrics.record(operation, System.nanoTime() - start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            event.commit();
+        }
+    }
+
+    // Search counts go with the query only if it ran a search
+    private void finishSearch(Operation operation, long start, GraphOperationEvent event, long[] counts) {
+        metrics.record(operation, System.nanoTime() - start);
+        event.end();
+
+        boolean searched = counts[2] > 0;
+
+        if (searched) {
+            metrics.recordSearch(counts[0], counts[1]);
+        }
+
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            if (searched) {
+                event.nodesExpanded = counts[0];
+                event.edgesRelaxed = counts[1];
+            }
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,882 @@
+package pathfinder.graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Undirected weighted graph over int node ids with its adjacency in primitive arrays.
+// The neighbours of node i are targets[i][0 .. degree(i) - 1], with the id of the
+// connecting edge at the same position in edgeIds[i]. Each connection is a single
+// edge record, shared by both endpoints, holding its two ends, its weight and its
+// interned road name id. Ids of removed nodes and edges are handed out again by
+// later adds. Nodes with many neighbours also keep an open addressing index from
+// neighbour to position, so lookups on hubs stay O(1). The index is built and kept
+// up to date by the changes, so lookups only read.
+public class IntGraph implements SearchObservable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int[] EMPTY = new int[0];
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_DEGREE = 4;
+    private static final int INDEX_THRESHOLD = 16;
+    private static final int FREE = -1;
+
+    private int[][] targets = new int[INITIAL_CAPACITY][];
+    private int[][] edgeIds = new int[INITIAL_CAPACITY][];
+    private int[][] indexes = new int[INITIAL_CAPACITY][];
+    private int[] degrees = new int[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int limit;
+    private int nodeCount;
+
+    private int[] edgeEnds = new int[2 * INITIAL_CAPACITY];
+    private int[] edgeWeights = new int[INITIAL_CAPACITY];
+    private int[] edgeNames = new int[INITIAL_CAPACITY];
+    private int[] freeEdgeIds = new int[INITIAL_CAPACITY];
+    private int freeEdgeCount;
+    private int edgeLimit;
+    private int edgeCount;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameTable = new HashMap<>();
+
+    private transient volatile SearchContextPool contexts;
+
+    public int addNode() {
+        int node;
+
+        if (freeCount > 0) {
+            node = freeIds[--freeCount];
+        } else {
+            if (limit == degrees.length) {
+                grow(limit * 2);
+            }
+            node = limit++;
+        }
+
+        targets[node] = EMPTY;
+        edgeIds[node] = EMPTY;
+        indexes[node] = null;
+        degrees[node] = 0;
+        nodeCount++;
+
+        return node;
+    }
+
+    public void removeNode(int node) {
+        check(node);
+
+        while (degrees[node] > 0) {
+            disconnect(node, targets[node][degrees[node] - 1]);
+        }
+
+        targets[node] = null;
+        edgeIds[node] = null;
+        indexes[node] = null;
+        degrees[node] = FREE;
+
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = node;
+        nodeCount--;
+    }
+
+    public boolean contains(int node) {
+        return node >= 0 && node < limit && degrees[node] != FREE;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // Every node id is below this
+    public int idLimit() {
+        return limit;
+    }
+
+    public int degree(int node) {
+        check(node);
+        return degrees[node];
+    }
+
+    // The position'th neighbour of node, position below degree(node)
+    public int target(int node, int position) {
+        return targets[node][position];
+    }
+
+    public int edgeId(int node, int position) {
+        return edgeIds[node][position];
+    }
+
+    public int weight(int node, int position) {
+        return edgeWeights[edgeIds[node][position]];
+    }
+
+    public String name(int node, int position) {
+        return names.get(edgeNames[edgeIds[node][position]]);
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    // Every edge id is below this
+    public int edgeIdLimit() {
+        return edgeLimit;
+    }
+
+    public boolean containsEdge(int edge) {
+        return edge >= 0 && edge < edgeLimit && edgeEnds[2 * edge] != FREE;
+    }
+
+    // The end the edge was connected from, the other one is edgeTarget
+    public int edgeSource(int edge) {
+        return edgeEnds[2 * edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeEnds[2 * edge + 1];
+    }
+
+    public int edgeWeight(int edge) {
+        return edgeWeights[edge];
+    }
+
+    public String edgeName(int edge) {
+        return names.get(edgeNames[edge]);
+    }
+
+    // Position of to among the neighbours of from, or -1 if they are not connected
+    public int positionOf(int from, int to) {
+        check(from);
+        check(to);
+
+        int[] index = indexes[from];
+
+        if (index != null) {
+            int slot = findSlot(index, to);
+            return index[2 * slot] == to ? index[2 * slot + 1] : -1;
+        }
+
+        int[] row = targets[from];
+        for (int position = 0; position < degrees[from]; position++) {
+            if (row[position] == to) {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    public void connect(int a, int b, String name, int weight) {
+        check(a);
+        check(b);
+
+        if (weight < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (positionOf(a, b) >= 0) {
+            throw new IllegalStateException();
+        }
+
+        int nameId = nameTable.computeIfAbsent(name, key -> {
+            names.add(key);
+            return names.size() - 1;
+        });
+
+        int edge = newEdge(a, b, nameId, weight);
+
+        append(a, b, edge);
+        if (a != b) {
+            append(b, a, edge);
+        }
+    }
+
+    public void disconnect(int a, int b) {
+        int position = positionOf(a, b);
+
+        if (position < 0) {
+            throw new IllegalStateException();
+        }
+
+        int edge = edgeIds[a][position];
+
+        removeAt(a, position);
+        if (a != b) {
+            removeAt(b, positionOf(b, a));
+        }
+
+        edgeEnds[2 * edge] = FREE;
+        edgeEnds[2 * edge + 1] = FREE;
+        if (freeEdgeCount == freeEdgeIds.length) {
+            freeEdgeIds = Arrays.copyOf(freeEdgeIds, freeEdgeCount * 2);
+        }
+        freeEdgeIds[freeEdgeCount++] = edge;
+        edgeCount--;
+    }
+
+    public void setWeight(int a, int b, int weight) {
+        int position = positionOf(a, b);
+
+        if (position < 0) {
+            throw new NoSuchElementException();
+        }
+
+        if (weight < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        edgeWeights[edgeIds[a][position]] = weight;
+    }
+
+    public boolean pathExists(int from, int to) {
+        if (!contains(from) || !contains(to)) {
+            return false;
+        }
+
+        SearchContext context = borrowContext();
+
+        try {
+            int[] stack = context.stack;
+            int top = 0;
+
+            context.begin();
+            context.visit(from);
+            stack[top++] = from;
+
+            while (top > 0) {
+                int current = stack[--top];
+
+                if (current == to) {
+                    return true;
+                }
+
+                context.expanded++;
+                context.relaxed += degrees[current];
+
+                int[] row = targets[current];
+                for (int position = 0; position < degrees[current]; position++) {
+                    if (context.visit(row[position])) {
+                        stack[top++] = row[position];
+                    }
+                }
+            }
+
+            return false;
+        } finally {
+            releaseContext(context);
+        }
+    }
+
+    // Breadth-first from both ends at once, always growing the smaller frontier. The
+    // frontier from a fills the context's stack from the bottom and the one from b
+    // from the top; between them they never hold more than every node once.
+    public boolean pathExistsBidirectional(int a, int b) {
+        if (!contains(a) || !contains(b)) {
+            return false;
+        }
+
+        if (a == b) {
+            return true;
+        }
+
+        SearchContext context = borrowContext();
+
+        try {
+            int[] queue = context.stack;
+            int startA = 0;
+            int endA = 0;
+            int startB = queue.length - 1;
+            int endB = queue.length - 1;
+
+            // The distance slot records which side reached a node first
+            context.begin();
+            context.reach(a, 0, -1);
+            context.reach(b, 1, -1);
+            queue[endA++] = a;
+            queue[endB--] = b;
+
+            while (endA > startA && startB > endB) {
+                boolean expandA = endA - startA <= startB - endB;
+                long side = expandA ? 0 : 1;
+
+                if (expandA) {
+                    int levelEnd = endA;
+
+                    for (; startA < levelEnd; startA++) {
+                        int current = queue[startA];
+                        int[] row = targets[current];
+
+                        context.expanded++;
+                        context.relaxed += degrees[current];
+
+                        for (int position = 0; position < degrees[current]; position++) {
+                            int next = row[position];
+
+                            if (!context.isVisited(next)) {
+                                context.reach(next, side, current);
+                                queue[endA++] = next;
+                            } else if (context.distance(next) != side) {
+                                return true;
+                            }
+                        }
+                    }
+                } else {
+                    int levelEnd = endB;
+
+                    for (; startB > levelEnd; startB--) {
+                        int current = queue[startB];
+                        int[] row = targets[current];
+
+                        context.expanded++;
+                        context.relaxed += degrees[current];
+
+                        for (int position = 0; position < degrees[current]; position++) {
+                            int next = row[position];
+
+                            if (!context.isVisited(next)) {
+                                context.reach(next, side, current);
+                                queue[endB--] = next;
+                            } else if (context.distance(next) != side) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+
+            return false;
+        } finally {
+            releaseContext(context);
+        }
+    }
+
+    public int[] getPath(int from, int to) {
+        return getPath(from, to, null);
+    }
+
+    // Dijkstra, or A* when a heuristic is given. Returns the nodes of the route from
+    // from to to inclusive, or null if there is none.
+    public int[] getPath(int from, int to, IntHeuristic heuristic) {
+        check(from);
+        check(to);
+
+        SearchContext context = borrowContext();
+
+        try {
+            IntMinHeap queue = context.queue;
+
+            context.begin();
+            context.reach(from, 0, -1);
+            queue.push(from, heuristic == null ? 0 : heuristic.estimate(from, to));
+
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+
+                if (current == to) {
+                    return gatherPath(to, context);
+                }
+
+                long distance = context.distance(current);
+                int[] row = targets[current];
+                int[] rowEdges = edgeIds[current];
+
+                context.expanded++;
+                context.relaxed += degrees[current];
+
+                for (int position = 0; position < degrees[current]; position++) {
+                    int next = row[position];
+                    long candidate = distance + edgeWeights[rowEdges[position]];
+
+                    if (candidate < context.distance(next)) {
+                        context.reach(next, candidate, current);
+                        queue.push(next, heuristic == null ? candidate : candidate + heuristic.estimate(next, to));
+                    }
+                }
+            }
+
+            return null;
+        } finally {
+            releaseContext(context);
+        }
+    }
+
+    // Up to k loopless routes from from to to, cheapest first, each as its node ids
+    // from from to to inclusive. Yen's algorithm: every route after the first leaves
+    // an earlier one at some spur node, and the cheapest such detour that avoids the
+    // root before the spur and the edges the earlier routes took from there is a
+    // candidate.
+    //
+    // A Dijkstra from to, grown only as far as from and then on demand to each spur,
+    // gives the exact distance to to of every node it has settled. Where the shortest
+    // way on from a spur avoids everything blocked it is the detour as is, otherwise
+    // an A* guided by those distances finds it. Only the k - found cheapest candidates
+    // are kept, and spurs or searches that cannot beat the dearest of them are skipped.
+    // Both searches run on pooled contexts.
+    public List<int[]> getPaths(int from, int to, int k) {
+        check(from);
+        check(to);
+
+        List<int[]> paths = new ArrayList<>();
+
+        if (k <= 0) {
+            return paths;
+        }
+
+        SearchContext context = borrowContext();
+        ReverseTree tree = new ReverseTree(to, borrowContext());
+
+        try {
+            if (tree.distance(from) == Long.MAX_VALUE) {
+                return paths;
+            }
+
+            List<Route> found = new ArrayList<>();
+            TreeSet<Route> candidates = new TreeSet<>();
+            Set<Route> seen = new HashSet<>();
+            int[] blockedNext = new int[k];
+            long order = 0;
+
+            context.begin();
+            found.add(new Route(tree.path(from, context, blockedNext, 0), tree.distance(from), order++));
+            seen.add(found.get(0));
+
+            while (found.size() < k) {
+                int[] previous = found.get(found.size() - 1).nodes;
+                int wanted = k - found.size();
+                long rootCost = 0;
+
+                for (int j = 0; j < previous.length - 1; j++) {
+                    int spur = previous[j];
+                    long ceiling = candidates.size() < wanted ? Long.MAX_VALUE : candidates.last().cost;
+
+                    if (rootCost + tree.distance(spur) < ceiling) {
+                        context.begin();
+                        for (int i = 0; i < j; i++) {
+                            context.block(previous[i]);
+                        }
+
+                        int blockedCount = 0;
+                        for (Route route : found) {
+                            if (route.nodes.length > j + 1 && Arrays.equals(route.nodes, 0, j + 1, previous, 0, j + 1)) {
+                                blockedNext[blockedCount++] = route.nodes[j + 1];
+                            }
+                        }
+
+                        int[] detour = tree.path(spur, context, blockedNext, blockedCount);
+                        long detourCost = tree.distance(spur);
+
+                        if (detour == null) {
+                            detour = spurSearch(spur, to, tree, blockedNext, blockedCount,
+                                    ceiling == Long.MAX_VALUE ? Long.MAX_VALUE : ceiling - rootCost, context);
+                            detourCost = context.distance(to);
+                        }
+
+                        if (detour != null) {
+                            int[] nodes = Arrays.copyOf(previous, j + detour.length);
+                            System.arraycopy(detour, 0, nodes, j, detour.length);
+
+                            Route route = new Route(nodes, rootCost + detourCost, order++);
+
+                            if (seen.add(route)) {
+                                candidates.add(route);
+
+                                if (candidates.size() > wanted) {
+                                    candidates.pollLast();
+                                }
+                            }
+                        }
+                    }
+
+                    rootCost += edgeWeights[edgeIds[spur][positionOf(spur, previous[j + 1])]];
+                }
+
+                if (candidates.isEmpty()) {
+                    break;
+                }
+
+                found.add(candidates.pollFirst());
+            }
+
+            for (Route route : found) {
+                paths.add(route.nodes);
+            }
+
+            return paths;
+        } finally {
+            releaseContext(tree.context);
+            releaseContext(context);
+        }
+    }
+
+    // A* from spur to to around the nodes blocked in the context and the blocked edges,
+    // with the reverse tree's estimates as its heuristic. Gives up, returning null, once
+    // nothing left can arrive for less than budget. The tree is not grown meanwhile, so
+    // the estimates stay consistent.
+    private int[] spurSearch(int spur, int to, ReverseTree tree, int[] blockedNext, int blockedCount, long budget,
+            SearchContext context) {
+        IntMinHeap queue = context.queue;
+
+        context.reach(spur, 0, -1);
+        queue.push(spur, tree.distance(spur));
+
+        while (!queue.isEmpty() && queue.peekPriority() < budget) {
+            int current = queue.poll();
+
+            if (current == to) {
+                return gatherPath(to, context);
+            }
+
+            long distance = context.distance(current);
+            int[] row = targets[current];
+            int[] rowEdges = edgeIds[current];
+
+            context.expanded++;
+            context.relaxed += degrees[current];
+
+            for (int position = 0; position < degrees[current]; position++) {
+                int node = row[position];
+                long estimate = tree.estimate(node);
+
+                if (estimate == Long.MAX_VALUE || (current == spur && includes(blockedNext, blockedCount, node))) {
+                    continue;
+                }
+
+                long candidate = distance + edgeWeights[rowEdges[position]];
+
+                // Blocked nodes hold a distance no candidate is below
+                if (candidate < context.distance(node)) {
+                    context.reach(node, candidate, current);
+                    queue.push(node, candidate + estimate);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean includes(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int[] gatherPath(int to, SearchContext context) {
+        int length = 1;
+        for (int node = to; context.via(node) >= 0; node = context.via(node)) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        for (int node = to; node >= 0; node = context.via(node)) {
+            path[--length] = node;
+        }
+
+        return path;
+    }
+
+    // Search arrays big enough for every node id, from the shared pool
+    SearchContext borrowContext() {
+        return contexts().borrow(limit, degrees.length);
+    }
+
+    void releaseContext(SearchContext context) {
+        contexts().release(context);
+    }
+
+    @Override
+    public void addSearchObserver(SearchObserver observer) {
+        contexts().addObserver(observer);
+    }
+
+    @Override
+    public void removeSearchObserver(SearchObserver observer) {
+        contexts().removeObserver(observer);
+    }
+
+    // Created on first use, a deserialized graph starts without one
+    private SearchContextPool contexts() {
+        SearchContextPool pool = contexts;
+
+        if (pool == null) {
+            synchronized (this) {
+                if (contexts == null) {
+                    contexts = new SearchContextPool();
+                }
+                pool = contexts;
+            }
+        }
+
+        return pool;
+    }
+
+    private void check(int node) {
+        if (!contains(node)) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private void grow(int capacity) {
+        targets = Arrays.copyOf(targets, capacity);
+        edgeIds = Arrays.copyOf(edgeIds, capacity);
+        indexes = Arrays.copyOf(indexes, capacity);
+        degrees = Arrays.copyOf(degrees, capacity);
+    }
+
+    private int newEdge(int a, int b, int nameId, int weight) {
+        int edge;
+
+        if (freeEdgeCount > 0) {
+            edge = freeEdgeIds[--freeEdgeCount];
+        } else {
+            if (edgeLimit == edgeWeights.length) {
+                edgeEnds = Arrays.copyOf(edgeEnds, 4 * edgeLimit);
+                edgeWeights = Arrays.copyOf(edgeWeights, 2 * edgeLimit);
+                edgeNames = Arrays.copyOf(edgeNames, 2 * edgeLimit);
+            }
+            edge = edgeLimit++;
+        }
+
+        edgeEnds[2 * edge] = a;
+        edgeEnds[2 * edge + 1] = b;
+        edgeWeights[edge] = weight;
+        edgeNames[edge] = nameId;
+        edgeCount++;
+
+        return edge;
+    }
+
+    private void append(int node, int target, int edge) {
+        int position = degrees[node];
+
+        if (position == targets[node].length) {
+            int length = Math.max(INITIAL_DEGREE, position * 2);
+
+            targets[node] = Arrays.copyOf(targets[node], length);
+            edgeIds[node] = Arrays.copyOf(edgeIds[node], length);
+        }
+
+        targets[node][position] = target;
+        edgeIds[node][position] = edge;
+        degrees[node]++;
+
+        // Both ends of a connection get here, so a node has its index from the moment
+        // it becomes a hub and lookups never have to build one
+        int[] index = indexes[node];
+        if (index == null) {
+            if (degrees[node] >= INDEX_THRESHOLD) {
+                buildIndex(node);
+            }
+        } else if (2 * degrees[node] > index.length / 2) {
+            buildIndex(node);
+        } else {
+            insert(index, target, position);
+        }
+    }
+
+    // Moves the last neighbour into the freed position
+    private void removeAt(int node, int position) {
+        int last = --degrees[node];
+        int[] index = indexes[node];
+
+        if (index != null) {
+            delete(index, targets[node][position]);
+        }
+
+        if (position != last) {
+            targets[node][position] = targets[node][last];
+            edgeIds[node][position] = edgeIds[node][last];
+
+            if (index != null) {
+                index[2 * findSlot(index, targets[node][position]) + 1] = position;
+            }
+        }
+
+        if (index != null && degrees[node] < INDEX_THRESHOLD / 2) {
+            indexes[node] = null;
+        }
+    }
+
+    // Pairs of (neighbour, position) with room for twice the current degree
+    private int[] buildIndex(int node) {
+        int slots = Integer.highestOneBit(Math.max(INDEX_THRESHOLD, degrees[node]) * 4);
+        int[] index = new int[2 * slots];
+
+        Arrays.fill(index, FREE);
+        for (int position = 0; position < degrees[node]; position++) {
+            insert(index, targets[node][position], position);
+        }
+
+        indexes[node] = index;
+        return index;
+    }
+
+    // The slot holding key, or the free slot where it would go
+    private static int findSlot(int[] index, int key) {
+        int mask = index.length / 2 - 1;
+        int slot = hash(key) & mask;
+
+        while (index[2 * slot] != FREE && index[2 * slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private static void insert(int[] index, int key, int position) {
+        int slot = findSlot(index, key);
+
+        index[2 * slot] = key;
+        index[2 * slot + 1] = position;
+    }
+
+    // Linear probing delete, shifting later entries of the cluster back into the hole
+    private static void delete(int[] index, int key) {
+        int mask = index.length / 2 - 1;
+        int hole = findSlot(index, key);
+        int next = (hole + 1) & mask;
+
+        while (index[2 * next] != FREE) {
+            int home = hash(index[2 * next]) & mask;
+
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[2 * hole] = index[2 * next];
+                index[2 * hole + 1] = index[2 * next + 1];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        index[2 * hole] = FREE;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Dijkstra from to over the reversed, here identical, edges on a context of its own,
+    // settling nodes only as far as asked. Every node at most radius away is settled,
+    // with its exact distance to to and the next node on a shortest way there.
+    private final class ReverseTree {
+        final SearchContext context;
+        private long radius;
+
+        ReverseTree(int to, SearchContext context) {
+            this.context = context;
+            context.begin();
+            context.reach(to, 0, -1);
+            context.queue.push(to, 0);
+        }
+
+        // The node's exact distance to to, or Long.MAX_VALUE, growing the tree to it
+        long distance(int node) {
+            IntMinHeap queue = context.queue;
+
+            while (context.distance(node) > radius && !queue.isEmpty()) {
+                radius = queue.peekPriority();
+                settle(queue.poll());
+            }
+            if (queue.isEmpty()) {
+                radius = Long.MAX_VALUE;
+            }
+
+            return context.distance(node);
+        }
+
+        // A lower bound on the node's distance to to without growing the tree: exact if
+        // it is settled, else the radius, which is Long.MAX_VALUE once every node that
+        // can reach to is settled
+        long estimate(int node) {
+            return Math.min(context.distance(node), radius);
+        }
+
+        // The shortest way from spur, which must be settled, to to, or null if it runs
+        // into a node blocked in the search context or leaves spur by a blocked edge
+        int[] path(int spur, SearchContext search, int[] blockedNext, int blockedCount) {
+            if (context.via(spur) >= 0 && includes(blockedNext, blockedCount, context.via(spur))) {
+                return null;
+            }
+
+            int length = 1;
+            for (int node = context.via(spur); node >= 0; node = context.via(node)) {
+                if (search.isBlocked(node)) {
+                    return null;
+                }
+                length++;
+            }
+
+            int[] path = new int[length];
+            path[0] = spur;
+            for (int i = 1; i < length; i++) {
+                path[i] = context.via(path[i - 1]);
+            }
+
+            return path;
+        }
+
+        private void settle(int current) {
+            long distance = context.distance(current);
+            int[] row = targets[current];
+            int[] rowEdges = edgeIds[current];
+
+            context.expanded++;
+            context.relaxed += degrees[current];
+
+            for (int position = 0; position < degrees[current]; position++) {
+                int node = row[position];
+                long candidate = distance + edgeWeights[rowEdges[position]];
+
+                if (candidate < context.distance(node)) {
+                    context.reach(node, candidate, current);
+                    context.queue.push(node, candidate);
+                }
+            }
+        }
+    }
+
+    // A route found by getPaths. Ordered by cost, then by when it was found, while
+    // equality only looks at the nodes.
+    private static final class Route implements Comparable<Route> {
+        final int[] nodes;
+        final long cost;
+        final long order;
+
+        Route(int[] nodes, long cost, long order) {
+            this.nodes = nodes;
+            this.cost = cost;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Route other) {
+            int byCost = Long.compare(cost, other.cost);
+
+            return byCost != 0 ? byCost : Long.compare(order, other.order);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Route && Arrays.equals(nodes, ((Route) other).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+    }
+}
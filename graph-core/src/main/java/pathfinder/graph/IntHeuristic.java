@@ -0,0 +1,6 @@
+package pathfinder.graph;
+
+// Heuristic over the node ids of an IntGraph, with the same rules as Heuristic
+public interface IntHeuristic {
+    long estimate(int node, int target);
+}
@@ -0,0 +1,124 @@
+package pathfinder.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class IntMinHeap {
+    private final int[] heap;
+    private final long[] priorities;
+    private final int[] positions;
+    private int size;
+
+    public IntMinHeap(int capacity) {
+        heap = new int[capacity];
+        priorities = new long[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // Inserts the item, or lowers its priority if it is already queued with a higher one
+    public void push(int item, long priority) {
+        int position = positions[item];
+
+        if (position < 0) {
+            heap[size] = item;
+            positions[item] = size;
+            priorities[item] = priority;
+            siftUp(size++);
+        } else if (priority < priorities[item]) {
+            priorities[item] = priority;
+            siftUp(position);
+        }
+    }
+
+    public long peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return priorities[heap[0]];
+    }
+
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        int top = heap[0];
+        positions[top] = -1;
+
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int item = heap[position];
+        long priority = priorities[item];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (priorities[heap[parent]] <= priority) {
+                break;
+            }
+
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    private void siftDown(int position) {
+        int item = heap[position];
+        long priority = priorities[item];
+
+        while (true) {
+            int child = 2 * position + 1;
+
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+                child++;
+            }
+            if (priorities[heap[child]] >= priority) {
+                break;
+            }
+
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
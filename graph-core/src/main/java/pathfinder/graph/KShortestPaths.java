@@ -0,0 +1,215 @@
+package pathfinder.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Yen's k shortest loopless paths over any Graph, the same way IntGraph.getPaths does
+// it over ids: one Dijkstra from the target gives every node's exact distance to it,
+// a spur whose shortest way on avoids everything blocked takes it as is and the others
+// run a PathSearch A* guided by those distances. Only the k - found cheapest candidates
+// are kept, and spurs that cannot beat the dearest of them are skipped.
+public class KShortestPaths<T> {
+    private final Graph<T> graph;
+
+    public KShortestPaths(Graph<T> graph) {
+        this.graph = graph;
+    }
+
+    public List<List<Edge<T>>> find(T from, T to, int k) {
+        if (!graph.getNodes().contains(from) || !graph.getNodes().contains(to)) {
+            throw new NoSuchElementException();
+        }
+
+        List<List<Edge<T>>> paths = new ArrayList<>();
+
+        if (k <= 0) {
+            return paths;
+        }
+
+        Map<T, Long> remaining = new HashMap<>();
+        Map<T, T> next = new HashMap<>();
+
+        distancesTo(to, remaining, next);
+
+        if (!remaining.containsKey(from)) {
+            return paths;
+        }
+
+        List<Route<T>> found = new ArrayList<>();
+        TreeSet<Route<T>> candidates = new TreeSet<>();
+        Set<List<Edge<T>>> seen = new HashSet<>();
+        long order = 0;
+
+        found.add(new Route<>(treePath(from, to, next, Collections.emptySet(), Collections.emptySet()),
+                remaining.get(from), order++));
+        seen.add(found.get(0).edges);
+
+        while (found.size() < k) {
+            List<Edge<T>> previous = found.get(found.size() - 1).edges;
+            int wanted = k - found.size();
+            Set<T> blocked = new HashSet<>();
+            T spur = from;
+            long rootCost = 0;
+
+            for (int j = 0; j < previous.size(); j++) {
+                long ceiling = candidates.size() < wanted ? Long.MAX_VALUE : candidates.last().cost;
+
+                if (rootCost + remaining.get(spur) < ceiling) {
+                    List<Edge<T>> root = previous.subList(0, j);
+                    Set<T> blockedNext = new HashSet<>();
+
+                    for (Route<T> route : found) {
+                        if (route.edges.size() > j && route.edges.subList(0, j).equals(root)) {
+                            blockedNext.add(route.edges.get(j).getDestination());
+                        }
+                    }
+
+                    List<Edge<T>> detour = treePath(spur, to, next, blocked, blockedNext);
+                    long detourCost = remaining.get(spur);
+
+                    if (detour == null) {
+                        T start = spur;
+                        PathSearch<T> search = new PathSearch<>(remaining::containsKey,
+                                node -> edgesAround(node, start, remaining, blocked, blockedNext));
+
+                        detour = search.find(spur, to, (node, target) -> remaining.get(node));
+                        detourCost = detour == null ? 0 : weightOf(detour);
+                    }
+
+                    if (detour != null) {
+                        List<Edge<T>> edges = new ArrayList<>(root);
+                        edges.addAll(detour);
+
+                        if (seen.add(edges)) {
+                            candidates.add(new Route<>(edges, rootCost + detourCost, order++));
+
+                            if (candidates.size() > wanted) {
+                                candidates.pollLast();
+                            }
+                        }
+                    }
+                }
+
+                blocked.add(spur);
+                rootCost += previous.get(j).getWeight();
+                spur = previous.get(j).getDestination();
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            found.add(candidates.pollFirst());
+        }
+
+        for (Route<T> route : found) {
+            paths.add(Collections.unmodifiableList(route.edges));
+        }
+
+        return paths;
+    }
+
+    // Dijkstra from to over the whole graph: the distance from every node that can
+    // reach to, and the next node on a shortest way there
+    private void distancesTo(T to, Map<T, Long> remaining, Map<T, T> next) {
+        IndexedMinHeap<T> queue = new IndexedMinHeap<>();
+
+        remaining.put(to, 0L);
+        queue.push(to, 0);
+
+        while (!queue.isEmpty()) {
+            T current = queue.poll();
+            long distance = remaining.get(current);
+
+            for (Edge<T> edge : graph.getEdgesFrom(current)) {
+                T node = edge.getDestination();
+                long candidate = distance + edge.getWeight();
+                Long known = remaining.get(node);
+
+                if (known == null || candidate < known) {
+                    remaining.put(node, candidate);
+                    next.put(node, current);
+                    queue.push(node, candidate);
+                }
+            }
+        }
+    }
+
+    // The shortest way from spur to to, or null if it runs into a blocked node or
+    // leaves the spur towards a blocked neighbour
+    private List<Edge<T>> treePath(T spur, T to, Map<T, T> next, Set<T> blocked, Set<T> blockedNext) {
+        List<Edge<T>> path = new ArrayList<>();
+
+        if (!spur.equals(to) && blockedNext.contains(next.get(spur))) {
+            return null;
+        }
+
+        for (T node = spur; !node.equals(to); node = next.get(node)) {
+            T following = next.get(node);
+
+            if (blocked.contains(following)) {
+                return null;
+            }
+
+            path.add(graph.getEdgeBetween(node, following));
+        }
+
+        return path;
+    }
+
+    // The node's edges, less those into blocked nodes, into nodes that cannot reach
+    // the target and, from the spur, those to a blocked neighbour
+    private Collection<Edge<T>> edgesAround(T node, T spur, Map<T, Long> remaining, Set<T> blocked,
+            Set<T> blockedNext) {
+        List<Edge<T>> edges = new ArrayList<>();
+
+        for (Edge<T> edge : graph.getEdgesFrom(node)) {
+            T destination = edge.getDestination();
+
+            if (remaining.containsKey(destination) && !blocked.contains(destination)
+                    && !(node.equals(spur) && blockedNext.contains(destination))) {
+                edges.add(edge);
+            }
+        }
+
+        return edges;
+    }
+
+    private static <T> long weightOf(List<Edge<T>> path) {
+        long weight = 0;
+
+        for (Edge<T> edge : path) {
+            weight += edge.getWeight();
+        }
+
+        return weight;
+    }
+
+    // Ordered by cost, then by when it was found
+    private static final class Route<T> implements Comparable<Route<T>> {
+        final List<Edge<T>> edges;
+        final long cost;
+        final long order;
+
+        Route(List<Edge<T>> edges, long cost, long order) {
+            this.edges = edges;
+            this.cost = cost;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Route<T> other) {
+            int byCost = Long.compare(cost, other.cost);
+
+            return byCost != 0 ? byCost : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package pathfinder.graph;
+
+import java.io.Serializable;
+import java.util.*;
+
+// Facade over an IntGraph: each node is given an int id when it is added and
+// everything after the id lookup runs on the primitive core.
+public class ListGraph<T> implements Graph<T>, SearchObservable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final IntGraph core = new IntGraph();
+    private final Map<T, Integer> ids = new HashMap<>();
+    private final List<T> nodes = new ArrayList<>();
+    private ConnectivityIndex<T> connectivity;
+    private transient PathCache<T> pathCache;
+    private transient List<GraphListener<T>> listeners;
+    private long version;
+
+    public void add(T node) {
+        if (!ids.containsKey(node)) {
+            int id = core.addNode();
+
+            ids.put(node, id);
+            if (id == nodes.size()) {
+                nodes.add(node);
+            } else {
+                nodes.set(id, node);
+            }
+            version++;
+
+            if (listeners != null) {
+                listeners.forEach(listener -> listener.nodeAdded(node));
+            }
+        }
+
+        if (connectivity != null) {
+            connectivity.add(node);
+        }
+    }
+
+    public void remove(T node) {
+        int id = idOf(node);
+
+        core.removeNode(id);
+        ids.remove(node);
+        nodes.set(id, null);
+        version++;
+
+        if (connectivity != null) {
+            connectivity.invalidate();
+        }
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.nodeRemoved(node));
+        }
+    }
+
+    public Set<T> getNodes() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    public List<Edge<T>> getPath(T from, T to) {
+        if (pathCache == null) {
+            return toEdges(core.getPath(idOf(from), idOf(to)));
+        }
+
+        Optional<List<Edge<T>>> cached = pathCache.get(from, to, version);
+
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+
+        List<Edge<T>> path = toEdges(core.getPath(idOf(from), idOf(to)));
+        pathCache.put(from, to, version, path);
+
+        return path;
+    }
+
+    public List<Edge<T>> getPath(T from, T to, Heuristic<T> heuristic) {
+        return toEdges(core.getPath(idOf(from), idOf(to),
+                (node, target) -> heuristic.estimate(nodes.get(node), nodes.get(target))));
+    }
+
+    public List<List<Edge<T>>> getPaths(T from, T to, int k) {
+        List<List<Edge<T>>> paths = new ArrayList<>();
+
+        for (int[] route : core.getPaths(idOf(from), idOf(to), k)) {
+            paths.add(toEdges(route));
+        }
+
+        return paths;
+    }
+
+    public boolean pathExists(T a, T b) {
+        if (!ids.containsKey(a) || !ids.containsKey(b)) {
+            return false;
+        }
+
+        if (connectivity != null) {
+            if (connectivity.isStale()) {
+                connectivity.rebuild(this);
+            }
+
+            return connectivity.connected(a, b);
+        }
+
+        return core.pathExists(ids.get(a), ids.get(b));
+    }
+
+    // Breadth-first from both ends at once, always growing the smaller frontier
+    public boolean pathExistsBidirectional(T a, T b) {
+        if (!ids.containsKey(a) || !ids.containsKey(b)) {
+            return false;
+        }
+
+        return core.pathExistsBidirectional(ids.get(a), ids.get(b));
+    }
+
+    public void setConnectionWeight(T a, T b, int weight) {
+        core.setWeight(idOf(a), idOf(b), weight);
+        version++;
+
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.weightChanged(a, b, weight));
+        }
+    }
+
+    public void disconnect(T a, T b) {
+        core.disconnect(idOf(a), idOf(b));
+        version++;
+
+        if (connectivity != null) {
+            connectivity.invalidate();
+        }
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.disconnected(a, b));
+        }
+    }
+
+    // The edges are built from the core on each call, setting a weight on one changes the graph
+    public Collection<Edge<T>> getEdgesFrom(T node) {
+        int id = idOf(node);
+        int degree = core.degree(id);
+        List<Edge<T>> edges = new ArrayList<>(degree);
+
+        for (int position = 0; position < degree; position++) {
+            edges.add(edgeAt(id, position));
+        }
+
+        return Collections.unmodifiableList(edges);
+    }
+
+    public void connect(T a, T b, String name, int weight) {
+        core.connect(idOf(a), idOf(b), name, weight);
+        version++;
+
+        if (connectivity != null) {
+            connectivity.union(a, b);
+        }
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.connected(a, b, name, weight));
+        }
+    }
+
+    public Edge<T> getEdgeBetween(T from, T to) {
+        int id = idOf(from);
+        int position = core.positionOf(id, idOf(to));
+
+        return position < 0 ? null : edgeAt(id, position);
+    }
+
+    // Answer pathExists from a union-find index kept up to date by add/connect
+    // and rebuilt lazily after disconnect/remove
+    public void enableConnectivityIndex() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex<>();
+            connectivity.rebuild(this);
+        }
+    }
+
+    // Remember up to capacity getPath results until the next change to the graph
+    public void enablePathCache(int capacity) {
+        pathCache = new PathCache<>(capacity);
+    }
+
+    // Listeners are not serialized with the graph
+    public void addListener(GraphListener<T> listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(GraphListener<T> listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    public PathCache<T> getPathCache() {
+        return pathCache;
+    }
+
+    // Incremented by every add, remove, connect, disconnect and setConnectionWeight
+    public long getVersion() {
+        return version;
+    }
+
+    public long[][] distanceMatrix(Collection<T> sources, Collection<T> targets) {
+        return snapshot().distanceMatrix(sources, targets);
+    }
+
+    public GraphSnapshot<T> snapshot() {
+        return new GraphSnapshot<>(this);
+    }
+
+    public IntGraph getCore() {
+        return core;
+    }
+
+    // The searches run by the core, which answers every query not served from a cache
+    @Override
+    public void addSearchObserver(SearchObserver observer) {
+        core.addSearchObserver(observer);
+    }
+
+    @Override
+    public void removeSearchObserver(SearchObserver observer) {
+        core.removeSearchObserver(observer);
+    }
+
+    // Id of the node in the core
+    public int idOf(T node) {
+        Integer id = ids.get(node);
+
+        if (id == null) {
+            throw new NoSuchElementException();
+        }
+
+        return id;
+    }
+
+    public T node(int id) {
+        return nodes.get(id);
+    }
+
+    private Edge<T> edgeAt(int node, int position) {
+        return new GraphEdge(nodes.get(node), nodes.get(core.target(node, position)), core.name(node, position),
+                core.weight(node, position));
+    }
+
+    // The edges between consecutive nodes of a route found by the core
+    private List<Edge<T>> toEdges(int[] route) {
+        if (route == null) {
+            return null;
+        }
+
+        List<Edge<T>> path = new ArrayList<>(route.length - 1);
+
+        for (int i = 0; i < route.length - 1; i++) {
+            path.add(edgeAt(route[i], core.positionOf(route[i], route[i + 1])));
+        }
+
+        return Collections.unmodifiableList(path);
+    }
+
+    // An edge built from the core, setting its weight sets the weight of the connection
+    private final class GraphEdge extends Edge<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final T source;
+
+        GraphEdge(T source, T destination, String name, int weight) {
+            super(destination, name, weight);
+            this.source = source;
+        }
+
+        @Override
+        public void setWeight(int weight) {
+            setConnectionWeight(source, getDestination(), weight);
+            super.setWeight(weight);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (T node : ids.keySet()) {
+            sb.append(node.toString()).append(" {\n");
+
+            for (Edge<T> edge : getEdgesFrom(node)) {
+                sb.append("- ").append(edge.toString()).append("\n");
+            }
+            sb.append("}\n\n");
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package pathfinder.graph;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Runs bursts of path queries concurrently against an immutable snapshot, so the
+// live graph can keep changing while a batch is in flight.
+public class PathBatch<T> {
+    private final GraphSnapshot<T> snapshot;
+    private final ExecutorService executor;
+
+    public PathBatch(GraphSnapshot<T> snapshot, ExecutorService executor) {
+        this.snapshot = snapshot;
+        this.executor = executor;
+    }
+
+    // Virtual thread per task when the runtime has them (Java 21+), otherwise one
+    // daemon platform thread per core. Either way the executor belongs to the caller,
+    // who shuts it down once its batches are done.
+    public static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "path-batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Results come back in query order. Each query gets the timeout from when its task
+    // starts, so queries waiting for a thread do not use it up. A search still running
+    // when its time runs out stops itself and is reported as TIMED_OUT. If the calling
+    // thread is interrupted, the queries not yet answered are cancelled.
+    public List<PathResult<T>> run(List<PathQuery<T>> queries, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long timeoutNanos = unit.toNanos(timeout);
+        List<Future<List<Edge<T>>>> futures = new ArrayList<>(queries.size());
+
+        for (PathQuery<T> query : queries) {
+            futures.add(executor.submit(
+                    () -> snapshot.getPath(query.getFrom(), query.getTo(), System.nanoTime() + timeoutNanos)));
+        }
+
+        List<PathResult<T>> results = new ArrayList<>(queries.size());
+
+        try {
+            for (Future<List<Edge<T>>> future : futures) {
+                try {
+                    results.add(PathResult.of(future.get()));
+                } catch (CancellationException e) {
+                    results.add(PathResult.timedOut());
+                } catch (ExecutionException e) {
+                    results.add(e.getCause() instanceof CancellationException ? PathResult.timedOut()
+                            : PathResult.failed(e.getCause()));
+                }
+            }
+        } finally {
+            if (results.size() < futures.size()) {
+                for (Future<List<Edge<T>>> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        return results;
+    }
+}
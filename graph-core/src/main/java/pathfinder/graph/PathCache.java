@@ -0,0 +1,116 @@
+package pathfinder.graph;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+// Bounded LRU cache of path results keyed by (from, to). Every entry belongs to
+// one graph version; asking with a newer version drops everything cached so far.
+public class PathCache<T> {
+    private final int capacity;
+    private final Map<Key<T>, Optional<List<Edge<T>>>> entries;
+    private long version = -1;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PathCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key<T>, Optional<List<Edge<T>>>> eldest) {
+                if (size() > PathCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns null on a miss, otherwise the cached result where an empty Optional means no path
+    public Optional<List<Edge<T>>> get(T from, T to, long graphVersion) {
+        if (graphVersion != version) {
+            entries.clear();
+            version = graphVersion;
+        }
+
+        Optional<List<Edge<T>>> path = entries.get(new Key<>(from, to));
+
+        if (path == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+
+        return path;
+    }
+
+    public void put(T from, T to, long graphVersion, List<Edge<T>> path) {
+        if (graphVersion != version) {
+            entries.clear();
+            version = graphVersion;
+        }
+
+        entries.put(new Key<>(from, to), Optional.ofNullable(path));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d entries, %d hits, %d misses, %d evictions", entries.size(), capacity, hits,
+                misses, evictions);
+    }
+
+    private static final class Key<T> {
+        private final T from;
+        private final T to;
+
+        Key(T from, T to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * from.hashCode() + to.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof Key<?> key) {
+                return Objects.equals(from, key.from) && Objects.equals(to, key.to);
+            }
+            return false;
+        }
+    }
+}
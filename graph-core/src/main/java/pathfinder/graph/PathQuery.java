@@ -0,0 +1,24 @@
+package pathfinder.graph;
+
+public class PathQuery<T> {
+    private final T from;
+    private final T to;
+
+    public PathQuery(T from, T to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public T getFrom() {
+        return from;
+    }
+
+    public T getTo() {
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s", from, to);
+    }
+}
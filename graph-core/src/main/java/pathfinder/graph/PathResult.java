@@ -0,0 +1,62 @@
+package pathfinder.graph;
+
+import java.util.List;
+
+public class PathResult<T> {
+    public enum Status {
+        FOUND, NO_PATH, TIMED_OUT, FAILED
+    }
+
+    private final Status status;
+    private final List<Edge<T>> path;
+    private final Throwable failure;
+
+    private PathResult(Status status, List<Edge<T>> path, Throwable failure) {
+        this.status = status;
+        this.path = path;
+        this.failure = failure;
+    }
+
+    public static <T> PathResult<T> of(List<Edge<T>> path) {
+        return path == null ? new PathResult<>(Status.NO_PATH, null, null) : new PathResult<>(Status.FOUND, path, null);
+    }
+
+    public static <T> PathResult<T> timedOut() {
+        return new PathResult<>(Status.TIMED_OUT, null, null);
+    }
+
+    public static <T> PathResult<T> failed(Throwable failure) {
+        return new PathResult<>(Status.FAILED, null, failure);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    // The path when the status is FOUND, otherwise null
+    public List<Edge<T>> getPath() {
+        return path;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    // A long, since a path can weigh more than any one road
+    public long getTotalWeight() {
+        long total = 0;
+
+        if (path != null) {
+            for (Edge<T> edge : path) {
+                total += edge.getWeight();
+            }
+        }
+
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return status == Status.FOUND ? String.format("%s, total %d", path, getTotalWeight()) : status.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package pathfinder.graph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class PathSearch<T> {
+    private final Predicate<T> contains;
+    private final Function<T, Collection<Edge<T>>> edges;
+    private int settled;
+
+    public PathSearch(Graph<T> graph) {
+        this(graph.getNodes()::contains, graph::getEdgesFrom);
+    }
+
+    public PathSearch(Predicate<T> contains, Function<T, Collection<Edge<T>>> edges) {
+        this.contains = contains;
+        this.edges = edges;
+    }
+
+    // Dijkstra, stops as soon as the target is settled
+    public List<Edge<T>> find(T from, T to) {
+        return find(from, to, (node, target) -> 0);
+    }
+
+    // A*, the queue is ordered by distance so far plus the heuristic's estimate of the rest
+    public List<Edge<T>> find(T from, T to, Heuristic<T> heuristic) {
+        if (!contains.test(from) || !contains.test(to)) {
+            throw new NoSuchElementException();
+        }
+
+        settled = 0;
+
+        Map<T, Long> distance = new HashMap<>();
+        Map<T, T> previous = new HashMap<>();
+        Map<T, Edge<T>> via = new HashMap<>();
+        IndexedMinHeap<T> queue = new IndexedMinHeap<>();
+
+        distance.put(from, 0L);
+        queue.push(from, heuristic.estimate(from, to));
+
+        while (!queue.isEmpty()) {
+            T current = queue.poll();
+            long currentDistance = distance.get(current);
+            settled++;
+
+            if (current.equals(to)) {
+                return gatherPath(from, to, previous, via);
+            }
+
+            for (Edge<T> edge : edges.apply(current)) {
+                T next = edge.getDestination();
+                long candidate = currentDistance + edge.getWeight();
+                Long known = distance.get(next);
+
+                if (known == null || candidate < known) {
+                    distance.put(next, candidate);
+                    previous.put(next, current);
+                    via.put(next, edge);
+                    queue.push(next, candidate + heuristic.estimate(next, to));
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public int getSettledCount() {
+        return settled;
+    }
+
+    private List<Edge<T>> gatherPath(T from, T to, Map<T, T> previous, Map<T, Edge<T>> via) {
+        LinkedList<Edge<T>> path = new LinkedList<>();
+
+        T current = to;
+
+        while (!current.equals(from)) {
+            path.addFirst(via.get(current));
+            current = previous.get(current);
+        }
+
+        return Collections.unmodifiableList(path);
+    }
+}
@@ -0,0 +1,10 @@
+package pathfinder.graph;
+
+// A named node with map coordinates
+public interface Place {
+    String getName();
+
+    double getxPos();
+
+    double getyPos();
+}
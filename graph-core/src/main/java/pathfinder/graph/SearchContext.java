@@ -0,0 +1,83 @@
+package pathfinder.graph;
+
+import java.util.Arrays;
+
+// Scratch arrays for one search over dense node ids, borrowed from the graph's
+// SearchContextPool and reused from query to query. An entry only counts when its
+// stamp matches the current epoch, so starting a new search is a counter bump
+// instead of a clear.
+//
+// The searches also add up the nodes they expand and the edges they look at from
+// those nodes. The totals start at 0 when the context is borrowed and are reported
+// to the graph's SearchObservers when it is given back.
+final class SearchContext {
+    final IntMinHeap queue;
+    final int[] stack;
+    long expanded;
+    long relaxed;
+    private final long[] distance;
+    private final int[] via;
+    private final int[] stamps;
+    private int epoch;
+
+    SearchContext(int size) {
+        queue = new IntMinHeap(size);
+        stack = new int[size];
+        distance = new long[size];
+        via = new int[size];
+        stamps = new int[size];
+    }
+
+    void begin() {
+        queue.clear();
+
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    boolean isVisited(int node) {
+        return stamps[node] == epoch;
+    }
+
+    // Marks the node as visited, returning false if it already was
+    boolean visit(int node) {
+        if (stamps[node] == epoch) {
+            return false;
+        }
+
+        stamps[node] = epoch;
+        distance[node] = Long.MAX_VALUE;
+        return true;
+    }
+
+    long distance(int node) {
+        return stamps[node] == epoch ? distance[node] : Long.MAX_VALUE;
+    }
+
+    int via(int node) {
+        return via[node];
+    }
+
+    int capacity() {
+        return stamps.length;
+    }
+
+    // Keeps the node out of the search until the next begin(): no distance is below
+    // the one it is given
+    void block(int node) {
+        stamps[node] = epoch;
+        distance[node] = Long.MIN_VALUE;
+    }
+
+    boolean isBlocked(int node) {
+        return stamps[node] == epoch && distance[node] == Long.MIN_VALUE;
+    }
+
+    void reach(int node, long distance, int via) {
+        stamps[node] = epoch;
+        this.distance[node] = distance;
+        this.via[node] = via;
+    }
+}
@@ -0,0 +1,80 @@
+package pathfinder.graph;
+
+import java.util.Arrays;
+
+// The search contexts of one graph, shared by all the threads searching it. A search
+// borrows a context and gives it back when it is done. Only MAX_IDLE contexts are kept
+// between searches, so a burst of threads leaves no more than that many behind, and
+// contexts too small for the graph are dropped instead of reused.
+//
+// The idle contexts sit on a fixed array used as a stack, so giving one back
+// allocates nothing and the next search gets the most recently used one.
+final class SearchContextPool {
+    private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    // Guarded by this
+    private final SearchContext[] idle = new SearchContext[MAX_IDLE];
+    private int idleCount;
+    // Copied on change, so a release reads them without locking
+    private volatile SearchObserver[] observers = new SearchObserver[0];
+
+    // A context for at least needed nodes, new ones are made for size
+    SearchContext borrow(int needed, int size) {
+        SearchContext context;
+
+        while ((context = pop()) != null) {
+            if (context.capacity() >= needed) {
+                context.expanded = 0;
+                context.relaxed = 0;
+                return context;
+            }
+        }
+
+        return new SearchContext(size);
+    }
+
+    // Reports the search to the observers and keeps the context if there is room
+    void release(SearchContext context) {
+        for (SearchObserver observer : observers) {
+            observer.searched(context.expanded, context.relaxed);
+        }
+
+        push(context);
+    }
+
+    synchronized void addObserver(SearchObserver observer) {
+        SearchObserver[] added = Arrays.copyOf(observers, observers.length + 1);
+
+        added[observers.length] = observer;
+        observers = added;
+    }
+
+    synchronized void removeObserver(SearchObserver observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i] == observer) {
+                SearchObserver[] removed = Arrays.copyOf(observers, observers.length - 1);
+
+                System.arraycopy(observers, i + 1, removed, i, removed.length - i);
+                observers = removed;
+                return;
+            }
+        }
+    }
+
+    private synchronized SearchContext pop() {
+        if (idleCount == 0) {
+            return null;
+        }
+
+        SearchContext context = idle[--idleCount];
+        idle[idleCount] = null;
+
+        return context;
+    }
+
+    private synchronized void push(SearchContext context) {
+        if (idleCount < idle.length) {
+            idle[idleCount++] = context;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package pathfinder.graph;
+
+// A graph that reports the searches it runs, as ListGraph, GraphSnapshot and IntGraph do
+public interface SearchObservable {
+    // Reported every search from now on, along with any other observers
+    void addSearchObserver(SearchObserver observer);
+
+    void removeSearchObserver(SearchObserver observer);
+}
@@ -0,0 +1,7 @@
+package pathfinder.graph;
+
+// Told about every search a graph runs, on the searching thread as the search ends,
+// with the nodes it expanded and the edges it looked at from those nodes
+public interface SearchObserver {
+    void searched(long expanded, long relaxed);
+}
@@ -0,0 +1,306 @@
+package pathfinder.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Bucket quadtree over the coordinates of places. Leaves hold up to BUCKET_SIZE places
+// before they split, and the root square doubles whenever a place lands outside it.
+// A place must not move while it is in the index.
+public class SpatialIndex<T extends Place> implements GraphListener<T> {
+    private static final int BUCKET_SIZE = 8;
+    private static final double MIN_CELL_SIZE = 1e-6;
+
+    private Cell<T> root;
+
+    // An index over the graph's places, kept up to date as places are added and removed
+    public static <T extends Place> SpatialIndex<T> attach(ListGraph<T> graph) {
+        SpatialIndex<T> index = new SpatialIndex<>();
+
+        for (T place : graph.getNodes()) {
+            index.add(place);
+        }
+        graph.addListener(index);
+
+        return index;
+    }
+
+    public int size() {
+        return root == null ? 0 : root.count;
+    }
+
+    public void add(T place) {
+        double x = place.getxPos();
+        double y = place.getyPos();
+
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            throw new IllegalArgumentException();
+        }
+
+        if (root == null) {
+            root = new Cell<>(Math.floor(x), Math.floor(y), 1);
+        }
+
+        while (!root.contains(x, y)) {
+            grow(x, y);
+        }
+
+        Cell<T> cell = root;
+
+        while (true) {
+            cell.count++;
+
+            if (cell.isLeaf()) {
+                cell.places.add(place);
+                if (cell.places.size() > BUCKET_SIZE && cell.size > MIN_CELL_SIZE) {
+                    cell.split();
+                }
+                return;
+            }
+
+            cell = cell.children.get(cell.quadrant(x, y));
+        }
+    }
+
+    public boolean remove(T place) {
+        double x = place.getxPos();
+        double y = place.getyPos();
+
+        return root != null && root.contains(x, y) && remove(root, place, x, y);
+    }
+
+    private boolean remove(Cell<T> cell, T place, double x, double y) {
+        boolean removed = cell.isLeaf() ? cell.places.remove(place)
+                : remove(cell.children.get(cell.quadrant(x, y)), place, x, y);
+
+        if (removed) {
+            cell.count--;
+
+            if (!cell.isLeaf() && cell.count <= BUCKET_SIZE) {
+                cell.merge();
+            }
+        }
+
+        return removed;
+    }
+
+    // Doubles the root towards the point, keeping the old root as one of its quadrants
+    private void grow(double x, double y) {
+        boolean left = x < root.x;
+        boolean down = y < root.y;
+        Cell<T> grown = new Cell<>(left ? root.x - root.size : root.x, down ? root.y - root.size : root.y,
+                root.size * 2);
+
+        grown.places = null;
+        grown.children = grown.newChildren();
+        grown.children.set((left ? 1 : 0) | (down ? 2 : 0), root);
+        grown.count = root.count;
+        root = grown;
+    }
+
+    public T nearest(double x, double y) {
+        return nearest(x, y, place -> true);
+    }
+
+    // The closest place accepted by the filter, e.g. one with connections to snap a
+    // point to the road network. Null if there is none.
+    public T nearest(double x, double y, Predicate<? super T> filter) {
+        List<T> nearest = nearest(x, y, 1, filter);
+
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    public List<T> nearest(double x, double y, int k) {
+        return nearest(x, y, k, place -> true);
+    }
+
+    // Up to k places closest first. Cells and places share one queue ordered by
+    // squared distance, so a place comes out only once nothing left can be closer.
+    public List<T> nearest(double x, double y, int k, Predicate<? super T> filter) {
+        List<T> result = new ArrayList<>(Math.min(k, size()));
+
+        if (root == null || k <= 0) {
+            return result;
+        }
+
+        PriorityQueue<Candidate<T>> queue = new PriorityQueue<>();
+        queue.add(new Candidate<>(root.distanceSquared(x, y), root, null));
+
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate<T> candidate = queue.poll();
+
+            if (candidate.place != null) {
+                result.add(candidate.place);
+            } else if (candidate.cell.isLeaf()) {
+                for (T place : candidate.cell.places) {
+                    if (filter.test(place)) {
+                        double dx = place.getxPos() - x;
+                        double dy = place.getyPos() - y;
+                        queue.add(new Candidate<>(dx * dx + dy * dy, null, place));
+                    }
+                }
+            } else {
+                for (Cell<T> child : candidate.cell.children) {
+                    if (child.count > 0) {
+                        queue.add(new Candidate<>(child.distanceSquared(x, y), child, null));
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public List<T> range(double minX, double minY, double maxX, double maxY) {
+        List<T> result = new ArrayList<>();
+
+        forEachInRange(minX, minY, maxX, maxY, result::add);
+
+        return Collections.unmodifiableList(result);
+    }
+
+    // Every place with minX <= x <= maxX and minY <= y <= maxY, without building a list
+    public void forEachInRange(double minX, double minY, double maxX, double maxY, Consumer<? super T> action) {
+        if (root != null) {
+            forEachInRange(root, minX, minY, maxX, maxY, action);
+        }
+    }
+
+    private void forEachInRange(Cell<T> cell, double minX, double minY, double maxX, double maxY,
+            Consumer<? super T> action) {
+        if (cell.count == 0 || cell.x > maxX || cell.y > maxY || cell.x + cell.size < minX
+                || cell.y + cell.size < minY) {
+            return;
+        }
+
+        if (cell.isLeaf()) {
+            for (T place : cell.places) {
+                double x = place.getxPos();
+                double y = place.getyPos();
+
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    action.accept(place);
+                }
+            }
+            return;
+        }
+
+        for (Cell<T> child : cell.children) {
+            forEachInRange(child, minX, minY, maxX, maxY, action);
+        }
+    }
+
+    @Override
+    public void nodeAdded(T node) {
+        add(node);
+    }
+
+    @Override
+    public void nodeRemoved(T node) {
+        remove(node);
+    }
+
+    // Square [x, x + size) x [y, y + size). Leaves hold places, inner cells four children
+    // ordered left/right in bit 0 and bottom/top in bit 1.
+    private static final class Cell<T extends Place> {
+        private final double x;
+        private final double y;
+        private final double size;
+        private List<T> places = new ArrayList<>();
+        private List<Cell<T>> children;
+        private int count;
+
+        Cell(double x, double y, double size) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+        boolean contains(double px, double py) {
+            return px >= x && px < x + size && py >= y && py < y + size;
+        }
+
+        int quadrant(double px, double py) {
+            double half = size / 2;
+
+            return (px >= x + half ? 1 : 0) | (py >= y + half ? 2 : 0);
+        }
+
+        double distanceSquared(double px, double py) {
+            double dx = Math.max(0, Math.max(x - px, px - (x + size)));
+            double dy = Math.max(0, Math.max(y - py, py - (y + size)));
+
+            return dx * dx + dy * dy;
+        }
+
+        List<Cell<T>> newChildren() {
+            double half = size / 2;
+            List<Cell<T>> cells = new ArrayList<>(4);
+
+            for (int i = 0; i < 4; i++) {
+                cells.add(new Cell<>(x + (i & 1) * half, y + (i >> 1) * half, half));
+            }
+
+            return cells;
+        }
+
+        void split() {
+            children = newChildren();
+
+            for (T place : places) {
+                Cell<T> child = children.get(quadrant(place.getxPos(), place.getyPos()));
+                child.places.add(place);
+                child.count++;
+            }
+            places = null;
+
+            for (Cell<T> child : children) {
+                if (child.places.size() > BUCKET_SIZE && child.size > MIN_CELL_SIZE) {
+                    child.split();
+                }
+            }
+        }
+
+        void merge() {
+            List<T> merged = new ArrayList<>(count);
+
+            collect(merged);
+            children = null;
+            places = merged;
+        }
+
+        private void collect(List<T> into) {
+            if (isLeaf()) {
+                into.addAll(places);
+            } else {
+                for (Cell<T> child : children) {
+                    child.collect(into);
+                }
+            }
+        }
+    }
+
+    private static final class Candidate<T extends Place> implements Comparable<Candidate<T>> {
+        private final double distance;
+        private final Cell<T> cell;
+        private final T place;
+
+        Candidate(double distance, Cell<T> cell, T place) {
+            this.distance = distance;
+            this.cell = cell;
+            this.place = place;
+        }
+
+        @Override
+        public int compareTo(Candidate<T> other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+}
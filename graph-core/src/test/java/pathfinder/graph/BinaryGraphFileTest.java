@@ -0,0 +1,104 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Round trips through the mapped binary format and rejection of damaged files
+class BinaryGraphFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        ListGraph<City> graph = new ListGraph<>();
+        City a = new City("A", 1, 2);
+        City b = new City("Bö", 3.25, -4);
+        City c = new City("C", 0, 0);
+
+        graph.add(a);
+        graph.add(b);
+        graph.add(c);
+        graph.connect(a, b, "Road", 5);
+        graph.connect(b, c, "Road", 7);
+        graph.connect(a, a, "Loop", 2);
+
+        Path path = directory.resolve("map" + BinaryGraphFile.EXTENSION);
+        BinaryGraphFile.write(path, "map.gif", graph);
+
+        GraphBuilder<City> builder = new GraphBuilder<>(new ListGraph<>(), City::new);
+        BinaryGraphFile.open(path).read(builder);
+        Graph<City> read = builder.getGraph();
+
+        assertEquals("map.gif", builder.getImage());
+        assertEquals(3, read.getNodes().size());
+        assertEquals(-4, builder.place("Bö").getyPos());
+        assertEquals(2, read.getEdgeBetween(builder.place("A"), builder.place("A")).getWeight());
+        assertEquals(5, read.getEdgeBetween(builder.place("Bö"), builder.place("A")).getWeight());
+        assertEquals("Road", read.getEdgeBetween(builder.place("C"), builder.place("Bö")).getName());
+        assertEquals(2, read.getEdgesFrom(builder.place("A")).size());
+    }
+
+    @Test
+    void rejectsDamagedFiles() throws IOException {
+        ListGraph<City> graph = new ListGraph<>();
+        for (int i = 0; i < 10; i++) {
+            graph.add(new City("P" + i, i, i));
+        }
+        for (City from : graph.getNodes()) {
+            for (City to : graph.getNodes()) {
+                if (from.getxPos() + 1 == to.getxPos()) {
+                    graph.connect(from, to, "Road", 3);
+                }
+            }
+        }
+
+        Path path = directory.resolve("map" + BinaryGraphFile.EXTENSION);
+        BinaryGraphFile.write(path, "map.gif", graph);
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+
+        assertRejected(Arrays.copyOf(bytes, 40), "Not a binary graph file");
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1), "entries outside the file");
+        assertRejected(withInt(bytes, 8, 1_000_000), "places outside the file");
+        assertRejected(withInt(bytes, 8, -1), "place count -1");
+        assertRejected(withInt(bytes, 20, 99), "image is string 99");
+
+        int offsets = (int) header.getLong(48);
+        assertRejected(withInt(bytes, offsets + 8, 0), "out of order");
+
+        int entries = (int) header.getLong(56);
+        assertRejected(withInt(bytes, entries, 10), "connection to place 10");
+        assertRejected(withInt(bytes, entries + 8, -3), "road name is string -3");
+
+        int stringIndex = (int) header.getLong(24);
+        assertRejected(withInt(bytes, stringIndex + 4, Integer.MAX_VALUE), "string 0 outside the file");
+    }
+
+    private void assertRejected(byte[] bytes, String message) throws IOException {
+        Path path = directory.resolve("bad" + BinaryGraphFile.EXTENSION);
+        Files.write(path, bytes);
+
+        IOException error = assertThrows(IOException.class, () -> BinaryGraphFile.open(path));
+
+        assertNotNull(error.getMessage());
+        assertTrue(error.getMessage().contains(message), error.getMessage());
+    }
+
+    private static byte[] withInt(byte[] bytes, int at, int value) {
+        byte[] copy = bytes.clone();
+
+        ByteBuffer.wrap(copy).putInt(at, value);
+        return copy;
+    }
+}
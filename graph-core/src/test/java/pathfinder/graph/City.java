@@ -0,0 +1,34 @@
+package pathfinder.graph;
+
+// A place for tests, equal by identity like the UI's places
+final class City implements Place {
+    private final String name;
+    private final double x;
+    private final double y;
+
+    City(String name, double x, double y) {
+        this.name = name;
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public double getxPos() {
+        return x;
+    }
+
+    @Override
+    public double getyPos() {
+        return y;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
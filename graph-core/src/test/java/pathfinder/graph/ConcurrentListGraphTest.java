@@ -0,0 +1,108 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+// Readers racing a writer see both sides of a connection change together, and edges
+// handed out change only through the graph
+class ConcurrentListGraphTest {
+    private static final int PAIRS = 20_000;
+    private static final int UPDATES = 200_000;
+    private static final int READERS = 3;
+
+    @Test
+    void readersSeeBothSidesOfAChangeTogether() throws Exception {
+        ConcurrentListGraph<Integer> graph = new ConcurrentListGraph<>();
+
+        for (int node = 0; node < 2 * PAIRS; node++) {
+            graph.add(node);
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> read(graph, writing)));
+            }
+
+            // Connections are only ever made and weights only ever grow, so once a reader
+            // sees one side the other side can be no older
+            try {
+                for (int pair = 0; pair < PAIRS; pair++) {
+                    graph.connect(2 * pair, 2 * pair + 1, "road", 0);
+                }
+                for (int weight = 1; weight <= UPDATES; weight++) {
+                    int pair = weight % 8;
+
+                    graph.setConnectionWeight(2 * pair, 2 * pair + 1, weight);
+                }
+            } finally {
+                writing.set(false);
+            }
+
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get() > 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void edgesChangeOnlyThroughTheGraph() {
+        ConcurrentListGraph<String> graph = new ConcurrentListGraph<>();
+
+        graph.add("a");
+        graph.add("b");
+        graph.connect("a", "b", "road", 3);
+
+        Edge<String> before = graph.getEdgeBetween("a", "b");
+
+        graph.getEdgesFrom("b").iterator().next().setWeight(7);
+
+        assertEquals(3, before.getWeight());
+        assertEquals(7, graph.getEdgeBetween("a", "b").getWeight());
+        assertEquals(7, graph.getEdgeBetween("b", "a").getWeight());
+
+        graph.disconnect("a", "b");
+
+        assertNull(graph.getEdgeBetween("a", "b"));
+        assertTrue(graph.getEdgesFrom("a").isEmpty());
+    }
+
+    // Returns the number of reads, failing on the first connection seen from one side
+    // only or with a newer weight on the side read first
+    private static int read(ConcurrentListGraph<Integer> graph, AtomicBoolean writing) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int reads = 0;
+
+        while (writing.get()) {
+            int pair = random.nextBoolean() ? random.nextInt(8) : random.nextInt(PAIRS);
+            Edge<Integer> ab = graph.getEdgeBetween(2 * pair, 2 * pair + 1);
+            Edge<Integer> ba = graph.getEdgeBetween(2 * pair + 1, 2 * pair);
+
+            if (ab != null) {
+                assertNotNull(ba, "connection seen from one side only");
+                assertTrue(ba.getWeight() >= ab.getWeight(), "sides out of step");
+            }
+            reads++;
+        }
+
+        return reads;
+    }
+}
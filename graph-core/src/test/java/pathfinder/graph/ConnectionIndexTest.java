@@ -0,0 +1,122 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+// Connections in a rectangle against a scan of every connection
+class ConnectionIndexTest {
+    private static final double LONG = 50;
+
+    @Test
+    void findsEveryConnectionOverlappingTheRectangleOnce() {
+        Random random = new Random(71);
+        ListGraph<City> graph = new ListGraph<>();
+        List<City> cities = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            City city = new City("P" + i, random.nextDouble() * 1000, random.nextDouble() * 1000);
+
+            graph.add(city);
+            cities.add(city);
+        }
+
+        SpatialIndex<City> places = SpatialIndex.attach(graph);
+        connectRandomly(random, graph, cities, 300);
+        ConnectionIndex<City> connections = ConnectionIndex.attach(graph, places, LONG);
+
+        for (int round = 0; round < 20; round++) {
+            connectRandomly(random, graph, cities, 20);
+
+            for (int i = 0; i < 10; i++) {
+                City a = cities.get(random.nextInt(cities.size()));
+                City b = cities.get(random.nextInt(cities.size()));
+
+                if (graph.getEdgeBetween(a, b) != null) {
+                    graph.disconnect(a, b);
+                }
+            }
+            if (round % 5 == 4) {
+                City removed = cities.remove(random.nextInt(cities.size()));
+
+                graph.remove(removed);
+            }
+
+            for (int query = 0; query < 20; query++) {
+                double x = random.nextDouble() * 1100 - 50;
+                double y = random.nextDouble() * 1100 - 50;
+                double width = random.nextDouble() * 200;
+                double height = random.nextDouble() * 200;
+
+                assertEquals(scan(graph, x, y, x + width, y + height),
+                        found(connections, x, y, x + width, y + height));
+            }
+        }
+    }
+
+    // Mostly short roads between neighbours, some crossing the whole map
+    private static void connectRandomly(Random random, ListGraph<City> graph, List<City> cities, int count) {
+        for (int i = 0; i < count; i++) {
+            City a = cities.get(random.nextInt(cities.size()));
+            City b = random.nextInt(10) == 0 ? cities.get(random.nextInt(cities.size()))
+                    : nearby(random, cities, a);
+
+            if (b != null && graph.getEdgeBetween(a, b) == null) {
+                graph.connect(a, b, "Road", 1);
+            }
+        }
+    }
+
+    private static City nearby(Random random, List<City> cities, City place) {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            City other = cities.get(random.nextInt(cities.size()));
+
+            if (Math.hypot(other.getxPos() - place.getxPos(), other.getyPos() - place.getyPos()) <= LONG) {
+                return other;
+            }
+        }
+
+        return null;
+    }
+
+    private static Set<List<City>> found(ConnectionIndex<City> connections, double minX, double minY, double maxX,
+            double maxY) {
+        Set<List<City>> found = new HashSet<>();
+
+        connections.forEachInRange(minX, minY, maxX, maxY, (a, b) -> {
+            assertTrue(found.add(pair(a, b)), "reported twice");
+        });
+
+        return found;
+    }
+
+    private static Set<List<City>> scan(ListGraph<City> graph, double minX, double minY, double maxX, double maxY) {
+        Set<List<City>> expected = new HashSet<>();
+
+        for (City city : graph.getNodes()) {
+            for (Edge<City> edge : graph.getEdgesFrom(city)) {
+                City other = edge.getDestination();
+
+                if (Math.min(city.getxPos(), other.getxPos()) <= maxX
+                        && Math.max(city.getxPos(), other.getxPos()) >= minX
+                        && Math.min(city.getyPos(), other.getyPos()) <= maxY
+                        && Math.max(city.getyPos(), other.getyPos()) >= minY) {
+                    expected.add(pair(city, other));
+                }
+            }
+        }
+
+        return expected;
+    }
+
+    private static List<City> pair(City a, City b) {
+        return a.getName().compareTo(b.getName()) <= 0 ? List.of(a, b) : List.of(b, a);
+    }
+}
@@ -0,0 +1,125 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+// Queries over the hierarchy against brute force, before and after the graph changes
+class ContractionHierarchyTest {
+    private static final int GRAPHS = 300;
+
+    @Test
+    void findsTheCheapestPath() throws InterruptedException {
+        Random random = new Random(21);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            int size = 1 + random.nextInt(9);
+
+            TestGraphs.fill(random, size, random.nextDouble(), 9, graph);
+
+            try (ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph)) {
+                assertTrue(hierarchy.awaitCurrent(10, TimeUnit.SECONDS));
+                checkAllPairs(graph, hierarchy, size);
+            }
+        }
+    }
+
+    @Test
+    void answersCorrectlyWhileRebuilding() throws InterruptedException {
+        Random random = new Random(22);
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        TestGraphs.fill(random, 9, 0.5, 9, graph);
+
+        try (ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph)) {
+            for (int change = 0; change < 20; change++) {
+                int a = random.nextInt(9);
+                int b = random.nextInt(9);
+
+                if (graph.getEdgeBetween(a, b) == null) {
+                    graph.connect(a, b, "new", random.nextInt(10));
+                } else {
+                    graph.disconnect(a, b);
+                }
+
+                checkAllPairs(graph, hierarchy, 9);
+            }
+
+            // Rebuilt after the last change without waiting for another query
+            assertTrue(hierarchy.awaitCurrent(10, TimeUnit.SECONDS), "hierarchy was not rebuilt");
+            assertTrue(hierarchy.isCurrent());
+            checkAllPairs(graph, hierarchy, 9);
+        }
+    }
+
+    @Test
+    void buildsOnceForABatchOfChanges() {
+        Random random = new Random(23);
+        ListGraph<Integer> graph = new ListGraph<>();
+        AtomicInteger builds = new AtomicInteger();
+
+        TestGraphs.fill(random, 9, 0.5, 9, graph);
+
+        // Builds on the changing thread, so every snapshot taken is built
+        try (ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph, build -> {
+            builds.incrementAndGet();
+            build.run();
+        })) {
+            hierarchy.batch(() -> {
+                for (int change = 0; change < 20; change++) {
+                    int a = random.nextInt(9);
+                    int b = random.nextInt(9);
+
+                    if (graph.getEdgeBetween(a, b) == null) {
+                        graph.connect(a, b, "new", random.nextInt(10));
+                    } else {
+                        graph.disconnect(a, b);
+                    }
+                }
+
+                assertFalse(hierarchy.isCurrent());
+                checkAllPairs(graph, hierarchy, 9);
+            });
+
+            assertEquals(2, builds.get());
+            assertTrue(hierarchy.isCurrent());
+            checkAllPairs(graph, hierarchy, 9);
+        }
+    }
+
+    @Test
+    void addsUpShortcutsPastTheIntRange() throws InterruptedException {
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        for (int i = 0; i < 4; i++) {
+            graph.add(i);
+        }
+        graph.connect(0, 1, "long", Integer.MAX_VALUE);
+        graph.connect(1, 2, "long", Integer.MAX_VALUE);
+        graph.connect(2, 3, "long", Integer.MAX_VALUE);
+
+        try (ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(graph)) {
+            assertTrue(hierarchy.awaitCurrent(10, TimeUnit.SECONDS));
+            checkAllPairs(graph, hierarchy, 4);
+        }
+    }
+
+    private static void checkAllPairs(ListGraph<Integer> graph, ContractionHierarchy<Integer> hierarchy, int size) {
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                List<Edge<Integer>> path = hierarchy.getPath(from, to);
+
+                assertEquals(TestGraphs.shortest(graph, from, to),
+                        path == null ? -1 : TestGraphs.costOf(graph, from, to, path));
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+// GraphWriter and GraphReader round trips over the text format
+class GraphFileTest {
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        Random random = new Random(31);
+
+        for (int round = 0; round < 100; round++) {
+            ListGraph<City> graph = randomCities(random, 1 + random.nextInt(30));
+            String text = write(graph, null);
+            GraphBuilder<City> builder = read(text);
+
+            assertEquals("map.gif", builder.getImage());
+            assertEquals(graph.getNodes().size(), builder.getGraph().getNodes().size());
+
+            for (City city : graph.getNodes()) {
+                City copy = builder.place(city.getName());
+
+                assertEquals(city.getxPos(), copy.getxPos());
+                assertEquals(city.getyPos(), copy.getyPos());
+                assertEquals(graph.getEdgesFrom(city).size(), builder.getGraph().getEdgesFrom(copy).size());
+
+                for (Edge<City> edge : graph.getEdgesFrom(city)) {
+                    Edge<City> read = builder.getGraph().getEdgeBetween(copy,
+                            builder.place(edge.getDestination().getName()));
+
+                    assertNotNull(read);
+                    assertEquals(edge.getName(), read.getName());
+                    assertEquals(edge.getWeight(), read.getWeight());
+                }
+            }
+
+            assertEquals(text, write(builder.getGraph(), null));
+        }
+    }
+
+    @Test
+    void writesTheSameFileWhateverTheInsertionOrder() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            names.add("P" + i);
+        }
+
+        String expected = null;
+
+        for (long seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            ListGraph<City> graph = new ListGraph<>();
+            List<City> cities = new ArrayList<>();
+
+            Collections.shuffle(names, random);
+            for (String name : names) {
+                City city = new City(name, name.length(), 0.5);
+
+                graph.add(city);
+                cities.add(city);
+            }
+
+            // The same ring of connections, added from either end
+            cities.sort((a, b) -> a.getName().compareTo(b.getName()));
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < cities.size(); i++) {
+                order.add(i);
+            }
+            Collections.shuffle(order, random);
+
+            for (int i : order) {
+                City a = cities.get(i);
+                City b = cities.get((i + 1) % cities.size());
+
+                if (random.nextBoolean()) {
+                    graph.connect(a, b, "ring", i);
+                } else {
+                    graph.connect(b, a, "ring", i);
+                }
+            }
+
+            String text = write(graph, null);
+
+            if (expected == null) {
+                expected = text;
+            }
+            assertEquals(expected, text);
+        }
+    }
+
+    @Test
+    void writesEachConnectionOnce() throws IOException {
+        ListGraph<City> graph = new ListGraph<>();
+        City a = new City("A", 1, 2);
+        City b = new City("B", 3.25, -4);
+
+        graph.add(a);
+        graph.add(b);
+        graph.connect(b, a, "Road", 5);
+        graph.connect(a, a, "Loop", 2);
+
+        assertEquals("map.gif\nA;1.0;2.0;B;3.25;-4.0\nA;A;Loop;2\nA;B;Road;5\n", write(graph, null));
+
+        GraphBuilder<City> builder = read(write(graph, null));
+
+        assertEquals(2, builder.getGraph().getEdgeBetween(builder.place("A"), builder.place("A")).getWeight());
+        assertEquals(5, builder.getGraph().getEdgeBetween(builder.place("B"), builder.place("A")).getWeight());
+    }
+
+    @Test
+    void acceptsConnectionsListedFromBothEnds() throws IOException {
+        GraphBuilder<City> builder = read("map.gif\nA;1;2;B;3;4\nA;B;Road;5\nB;A;Road;5\n");
+
+        assertEquals(1, builder.getGraph().getEdgesFrom(builder.place("A")).size());
+        assertEquals(1, builder.getGraph().getEdgesFrom(builder.place("B")).size());
+    }
+
+    @Test
+    void connectsTheLaterOfTwoPlacesWithTheSameName() throws IOException {
+        GraphBuilder<City> builder = read("map.gif\nA;1;2;A;3;4;B;5;6\nA;B;Road;5\n");
+        City later = builder.place("A");
+
+        assertEquals(3, builder.getGraph().getNodes().size());
+        assertEquals(3, later.getxPos());
+        assertNotNull(builder.getGraph().getEdgeBetween(later, builder.place("B")));
+        assertEquals(1, builder.getGraph().getEdgesFrom(builder.place("B")).size());
+    }
+
+    @Test
+    void encodesInParallelInOrder() throws IOException {
+        ListGraph<City> graph = randomCities(new Random(32), 20_000);
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            assertEquals(write(graph, null), write(graph, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void reportsWhereTheFileIsWrong() {
+        GraphFormatException error = assertThrows(GraphFormatException.class,
+                () -> read("map.gif\nA;1;2;B;3;4\nA;B;Road;5\nA;C;Road;x\n"));
+
+        assertEquals(4, error.getLine());
+        assertThrows(GraphFormatException.class, () -> read("map.gif\nA;1;2;B;3;4\nA;C;Road;5\n"));
+        assertThrows(GraphFormatException.class, () -> read(""));
+    }
+
+    // Places with random coordinates and sparse random roads between them
+    private static ListGraph<City> randomCities(Random random, int size) {
+        ListGraph<City> graph = new ListGraph<>();
+        List<City> cities = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            City city = new City("City " + i, Math.round(random.nextDouble() * 1e6) / 100.0,
+                    random.nextInt(1000) - 500);
+
+            graph.add(city);
+            cities.add(city);
+        }
+
+        for (int i = 0; i < 2 * size; i++) {
+            City a = cities.get(random.nextInt(size));
+            City b = cities.get(random.nextInt(size));
+
+            if (graph.getEdgeBetween(a, b) == null) {
+                graph.connect(a, b, "Road " + random.nextInt(5), random.nextInt(100));
+            }
+        }
+
+        return graph;
+    }
+
+    private static String write(Graph<City> graph, ForkJoinPool pool) throws IOException {
+        StringWriter out = new StringWriter();
+
+        GraphWriter.write(out, "map.gif", graph, pool);
+        return out.toString();
+    }
+
+    private static GraphBuilder<City> read(String text) throws IOException {
+        GraphBuilder<City> builder = new GraphBuilder<>(new ListGraph<>(), City::new);
+
+        new GraphReader(new StringReader(text)).read(builder);
+        return builder;
+    }
+}
@@ -0,0 +1,330 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Saving through the journal and recovering from a crash at any point of it. A crash
+// is a journal that is opened again without having been closed.
+class GraphJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversWhatWasSynced() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+        City a = new City("A", 1, 2);
+        City b = new City("B", 3, 4);
+
+        graph.add(a);
+        graph.add(b);
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+
+        City c = new City("C", 5, 6);
+        graph.add(c);
+        graph.connect(a, c, "North", 7);
+        graph.connect(b, c, "South", 8);
+        journal.sync();
+
+        // Never synced, so lost in the crash
+        graph.setConnectionWeight(a, c, 1);
+        graph.remove(b);
+
+        GraphBuilder<City> recovered = open(file);
+
+        assertEquals(text(synced(a, b, c)), text(recovered.getGraph()));
+        assertEquals(7, recovered.getGraph().getEdgeBetween(recovered.place("A"), recovered.place("C")).getWeight());
+    }
+
+    @Test
+    void ignoresATornLastChange() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+
+        graph.add(new City("A", 1, 2));
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+        graph.add(new City("B", 3, 4));
+        journal.sync();
+
+        String expected = text(graph);
+
+        // Half of a change written when the crash came
+        Files.write(GraphJournal.journalOf(file), "connect;A;B;Ro".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        GraphBuilder<City> recovered = open(file);
+        assertEquals(expected, text(recovered.getGraph()));
+
+        // The journal carries on after the torn change
+        GraphBuilder<City> builder = new GraphBuilder<>(new ListGraph<>(), City::new);
+        GraphJournal<City> reopened = GraphJournal.open(file, builder);
+        ListGraph<City> again = (ListGraph<City>) builder.getGraph();
+
+        again.addListener(reopened);
+        again.connect(builder.place("A"), builder.place("B"), "Road", 3);
+        reopened.sync();
+        reopened.close();
+
+        GraphBuilder<City> last = open(file);
+        assertEquals(text(again), text(last.getGraph()));
+        assertEquals(3, last.getGraph().getEdgeBetween(last.place("A"), last.place("B")).getWeight());
+    }
+
+    @Test
+    void compactsALongJournal() throws IOException, InterruptedException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+        City hub = new City("Hub", 0, 0);
+
+        graph.add(hub);
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+
+        for (int i = 0; i < 3000; i++) {
+            City city = new City("City " + i, i, -i);
+
+            graph.add(city);
+            graph.connect(hub, city, "Road " + i, i);
+            if (i % 3 == 0) {
+                graph.remove(city);
+            }
+            if (i % 100 == 0) {
+                journal.sync();
+            }
+        }
+        journal.sync();
+
+        // Far less than the changes made, which take some 200 KB. A compaction that ends
+        // after the last sync leaves what was synced meanwhile for the next one.
+        for (long deadline = System.nanoTime() + 10_000_000_000L; journal.size() > 80 * 1024;) {
+            assertTrue(System.nanoTime() < deadline, "journal was not compacted");
+            Thread.sleep(10);
+            journal.sync();
+        }
+        assertNull(journal.getCompactionFailure());
+
+        graph.setConnectionWeight(hub, graph.getEdgesFrom(hub).iterator().next().getDestination(), 12345);
+        journal.sync();
+
+        assertEquals(text(graph), text(open(file).getGraph()));
+        journal.close();
+    }
+
+    @Test
+    void rejectsTheJournalOfAnotherSnapshot() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+
+        graph.add(new City("A", 1, 2));
+        GraphJournal.create(file, "map.gif", graph).close();
+
+        Path other = directory.resolve("other.graph");
+        graph.add(new City("B", 3, 4));
+        GraphJournal<City> journal = GraphJournal.create(other, "map.gif", graph);
+        graph.addListener(journal);
+        graph.add(new City("C", 5, 6));
+        journal.close();
+
+        Files.copy(GraphJournal.journalOf(other), GraphJournal.journalOf(file),
+                StandardCopyOption.REPLACE_EXISTING);
+
+        assertThrows(GraphFormatException.class, () -> open(file));
+    }
+
+    @Test
+    void replaysOnlyCommittedBatches() throws IOException {
+        Path file = directory.resolve("map.graph");
+        Path journalFile = GraphJournal.journalOf(file);
+        ListGraph<City> graph = new ListGraph<>();
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+        graph.add(new City("A", 1, 2));
+        journal.sync();
+
+        String expected = text(graph);
+        long committed = journal.size();
+
+        graph.add(new City("B", 3, 4));
+        graph.add(new City("C", 5, 6));
+        journal.sync();
+        byte[] bytes = Files.readAllBytes(journalFile);
+
+        // The second batch without the end of its commit record
+        Files.write(journalFile, Arrays.copyOf(bytes, bytes.length - 1));
+        assertEquals(expected, text(open(file).getGraph()));
+        assertEquals(committed, Files.size(journalFile));
+
+        // The second batch complete but damaged
+        byte[] damaged = bytes.clone();
+        damaged[(int) committed + 5] = 'D';
+        Files.write(journalFile, damaged);
+        assertEquals(expected, text(open(file).getGraph()));
+        assertEquals(committed, Files.size(journalFile));
+
+        Files.write(journalFile, bytes);
+        assertEquals(text(graph), text(open(file).getGraph()));
+    }
+
+    @Test
+    void keepsNamesHoldingTheRecordSyntax() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+
+        City a = new City("A;1:x\nB", 1, 2);
+        City b = new City("Ö;", 3, 4);
+        graph.add(a);
+        graph.add(b);
+        graph.connect(a, b, "Road;\n:7", 5);
+        journal.close();
+
+        GraphBuilder<City> recovered = open(file);
+
+        assertEquals(2, recovered.getGraph().getNodes().size());
+        assertEquals("Road;\n:7",
+                recovered.getGraph().getEdgeBetween(recovered.place("A;1:x\nB"), recovered.place("Ö;")).getName());
+    }
+
+    @Test
+    void writesNoJournalUntilTheFirstChange() throws IOException {
+        Path file = directory.resolve("map.graph");
+        Path journalFile = GraphJournal.journalOf(file);
+        ListGraph<City> graph = new ListGraph<>();
+
+        graph.add(new City("A", 1, 2));
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+        journal.sync();
+        assertFalse(Files.exists(journalFile));
+
+        graph.add(new City("B", 3, 4));
+        journal.sync();
+        assertTrue(Files.exists(journalFile));
+        journal.close();
+        graph.removeListener(journal);
+
+        // Saving the whole graph again replaces the snapshot and drops its journal
+        GraphJournal.create(file, "map.gif", graph).close();
+        assertFalse(Files.exists(journalFile));
+        assertEquals(text(graph), text(open(file).getGraph()));
+    }
+
+    @Test
+    void discardReadsBackTheSyncedState() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+        graph.add(new City("A", 1, 2));
+        journal.sync();
+
+        String expected = text(graph);
+        graph.add(new City("B", 3, 4));
+
+        GraphBuilder<City> builder = new GraphBuilder<>(new ListGraph<>(), City::new);
+        GraphJournal<City> reloaded = journal.discard(builder);
+        ListGraph<City> again = (ListGraph<City>) builder.getGraph();
+
+        assertEquals(expected, text(again));
+
+        // The new journal carries on from the synced state
+        again.addListener(reloaded);
+        again.add(new City("C", 5, 6));
+        reloaded.close();
+
+        assertEquals(text(again), text(open(file).getGraph()));
+    }
+
+    @Test
+    void closeSyncsPendingChangesAndAbandonDropsThem() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+        graph.add(new City("A", 1, 2));
+        journal.close();
+        graph.removeListener(journal);
+
+        String expected = text(graph);
+        assertEquals(expected, text(open(file).getGraph()));
+
+        GraphBuilder<City> builder = new GraphBuilder<>(new ListGraph<>(), City::new);
+        GraphJournal<City> reopened = GraphJournal.open(file, builder);
+        ListGraph<City> again = (ListGraph<City>) builder.getGraph();
+
+        again.addListener(reopened);
+        again.add(new City("B", 3, 4));
+        reopened.abandon();
+
+        assertEquals(expected, text(open(file).getGraph()));
+    }
+
+    @Test
+    void tracksPendingChanges() throws IOException {
+        Path file = directory.resolve("map.graph");
+        ListGraph<City> graph = new ListGraph<>();
+
+        GraphJournal<City> journal = GraphJournal.create(file, "map.gif", graph);
+        graph.addListener(journal);
+
+        assertFalse(journal.hasPendingChanges());
+        graph.add(new City("A", 1, 2));
+        assertTrue(journal.hasPendingChanges());
+        journal.sync();
+        assertFalse(journal.hasPendingChanges());
+        journal.close();
+    }
+
+    // The snapshot and journal read into a new graph, leaving the journal closed
+    private static GraphBuilder<City> open(Path file) throws IOException {
+        GraphBuilder<City> builder = new GraphBuilder<>(new ListGraph<>(), City::new);
+
+        GraphJournal.open(file, builder).close();
+        return builder;
+    }
+
+    // The graph holding only a, b and c with the synced connections
+    private static Graph<City> synced(City a, City b, City c) {
+        ListGraph<City> graph = new ListGraph<>();
+
+        graph.add(a);
+        graph.add(b);
+        graph.add(c);
+        graph.connect(a, c, "North", 7);
+        graph.connect(b, c, "South", 8);
+        return graph;
+    }
+
+    private static String text(Graph<City> graph) throws IOException {
+        StringWriter out = new StringWriter();
+
+        GraphWriter.write(out, "map.gif", graph);
+        return out.toString();
+    }
+}
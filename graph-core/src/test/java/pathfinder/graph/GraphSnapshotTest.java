@@ -0,0 +1,124 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+// The CSR copy against the ListGraph it was taken from and against brute force
+class GraphSnapshotTest {
+    private static final int GRAPHS = 300;
+
+    @Test
+    void copiesEveryRowSortedById() {
+        Random random = new Random(11);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            int size = 1 + random.nextInt(12);
+
+            TestGraphs.fill(random, size, random.nextDouble(), 9, graph);
+            if (random.nextBoolean()) {
+                graph.connect(0, 0, "loop", 3);
+            }
+
+            GraphSnapshot<Integer> snapshot = graph.snapshot();
+
+            assertEquals(size, snapshot.size());
+            assertEquals(graph.getNodes(), snapshot.getNodes());
+
+            for (int node = 0; node < size; node++) {
+                int id = snapshot.idOf(node);
+
+                assertEquals(node, snapshot.node(id));
+                assertEquals(describe(graph.getEdgesFrom(node)), describe(snapshot.getEdgesFrom(node)));
+
+                for (int slot = snapshot.firstSlot(id) + 1; slot < snapshot.firstSlot(id + 1); slot++) {
+                    assertTrue(snapshot.target(slot - 1) < snapshot.target(slot));
+                }
+
+                for (int other = 0; other < size; other++) {
+                    Edge<Integer> expected = graph.getEdgeBetween(node, other);
+                    Edge<Integer> actual = snapshot.getEdgeBetween(node, other);
+
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertEquals(expected, actual);
+                        assertEquals(expected.getWeight(), actual.getWeight());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void searchesMatchBruteForce() {
+        Random random = new Random(12);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            int size = 1 + random.nextInt(9);
+
+            TestGraphs.fill(random, size, random.nextDouble() * 0.7, 9, graph);
+
+            GraphSnapshot<Integer> snapshot = graph.snapshot();
+            List<Integer> nodes = new ArrayList<>(graph.getNodes());
+            long[][] matrix = snapshot.distanceMatrix(nodes, nodes);
+
+            for (int i = 0; i < nodes.size(); i++) {
+                for (int j = 0; j < nodes.size(); j++) {
+                    int from = nodes.get(i);
+                    int to = nodes.get(j);
+                    long expected = TestGraphs.shortest(graph, from, to);
+                    List<Edge<Integer>> path = snapshot.getPath(from, to);
+
+                    assertEquals(expected >= 0, snapshot.pathExists(from, to));
+                    assertEquals(expected, path == null ? -1 : TestGraphs.costOf(snapshot, from, to, path));
+                    assertEquals(expected < 0 ? GraphSnapshot.UNREACHABLE : expected, matrix[i][j]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsTheStateItWasTakenFrom() {
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        TestGraphs.fill(new Random(13), 6, 1, 9, graph);
+
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        long[][] before = snapshot.distanceMatrix(List.of(0, 1, 2), List.of(3, 4, 5));
+
+        graph.disconnect(0, 3);
+        graph.setConnectionWeight(1, 4, 100);
+        graph.remove(5);
+
+        assertEquals(6, snapshot.size());
+        assertTrue(snapshot.getEdgeBetween(0, 3) != null);
+        assertArrayEquals(before, snapshot.distanceMatrix(List.of(0, 1, 2), List.of(3, 4, 5)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.connect(0, 1, "r", 1));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getEdgeBetween(0, 3).setWeight(1));
+    }
+
+    // Destination, road and weight of each edge, in any order
+    private static Set<String> describe(Iterable<Edge<Integer>> edges) {
+        Set<String> described = new HashSet<>();
+
+        for (Edge<Integer> edge : edges) {
+            assertTrue(described.add(edge.getDestination() + ";" + edge.getName() + ";" + edge.getWeight()));
+        }
+
+        return described;
+    }
+}
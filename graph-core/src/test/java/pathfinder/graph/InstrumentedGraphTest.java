@@ -0,0 +1,36 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+// Search counts of wrappers sharing one graph
+class InstrumentedGraphTest {
+    @Test
+    void wrappersOfOneGraphEachCountTheirOwnSearches() {
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        for (int node = 0; node < 3; node++) {
+            graph.add(node);
+        }
+        graph.connect(0, 1, "road", 1);
+        graph.connect(1, 2, "road", 1);
+
+        InstrumentedGraph<Integer> first = new InstrumentedGraph<>(graph);
+        InstrumentedGraph<Integer> second = new InstrumentedGraph<>(graph);
+
+        first.getPath(0, 2);
+        second.getPath(0, 2);
+        second.getPath(2, 0);
+
+        assertEquals(1, first.getMetrics().getSearches());
+        assertEquals(2, second.getMetrics().getSearches());
+
+        first.detach();
+        first.getPath(0, 2);
+        second.getPath(0, 2);
+
+        assertEquals(1, first.getMetrics().getSearches());
+        assertEquals(3, second.getMetrics().getSearches());
+    }
+}
@@ -0,0 +1,117 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+// Yen's algorithm, on ListGraph's core and the generic KShortestPaths behind
+// ConcurrentListGraph, against every loopless path found by brute force
+class KShortestPathsTest {
+    private static final int GRAPHS = 2000;
+    private static final int TAIL = 5000;
+
+    @Test
+    void findsTheKCheapestLooplessPaths() {
+        Random random = new Random(41);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            ConcurrentListGraph<Integer> concurrent = new ConcurrentListGraph<>();
+            int size = 1 + random.nextInt(8);
+
+            TestGraphs.fill(random, size, random.nextDouble(), 3, graph, concurrent);
+            if (random.nextInt(4) == 0) {
+                graph.connect(0, 0, "loop", 0);
+                concurrent.connect(0, 0, "loop", 0);
+            }
+
+            // Several queries per graph, so later ones run on reused search contexts
+            for (int query = 0; query < 3; query++) {
+                int from = random.nextInt(size);
+                int to = random.nextInt(size);
+                int k = 1 + random.nextInt(12);
+                List<Long> all = TestGraphs.simplePathCosts(graph, from, to);
+                List<Long> expected = all.subList(0, Math.min(k, all.size()));
+
+                assertEquals(expected, costsOf(graph, from, to, graph.getPaths(from, to, k)));
+                assertEquals(expected, costsOf(concurrent, from, to, concurrent.getPaths(from, to, k)));
+            }
+        }
+    }
+
+    @Test
+    void growsTheSearchFromTheTargetOnlyAsFarAsNeeded() {
+        Random random = new Random(43);
+
+        for (int round = 0; round < 200; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            int size = 2 + random.nextInt(7);
+            long[] expanded = new long[1];
+
+            TestGraphs.fill(random, size, random.nextDouble(), 3, graph);
+
+            // A long dead end off the target that no loopless path enters, dearer than
+            // any path through the small graph
+            for (int node = size; node < size + TAIL; node++) {
+                graph.add(node);
+                graph.connect(node == size ? 1 : node - 1, node, "tail", 100);
+            }
+            graph.addSearchObserver((nodes, edges) -> expanded[0] += nodes);
+
+            int from = 0;
+            int to = 1;
+            int k = 1 + random.nextInt(12);
+            List<Long> all = TestGraphs.simplePathCosts(graph, from, to);
+            List<Long> expected = all.subList(0, Math.min(k, all.size()));
+
+            assertEquals(expected, costsOf(graph, from, to, graph.getPaths(from, to, k)));
+            if (!all.isEmpty()) {
+                assertTrue(expanded[0] < TAIL / 10, expanded[0] + " nodes expanded");
+            }
+        }
+    }
+
+    @Test
+    void handlesEdgeCases() {
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        TestGraphs.fill(new Random(42), 4, 1, 3, graph);
+        graph.add(9);
+
+        assertTrue(graph.getPaths(0, 1, 0).isEmpty());
+        assertTrue(graph.getPaths(0, 9, 5).isEmpty());
+        assertEquals(List.of(List.of()), graph.getPaths(2, 2, 5));
+        assertThrows(NoSuchElementException.class, () -> graph.getPaths(0, 10, 1));
+    }
+
+    // Checks every path and that no two are the same, returning their costs in order
+    private static List<Long> costsOf(Graph<Integer> graph, int from, int to, List<List<Edge<Integer>>> paths) {
+        List<Long> costs = new ArrayList<>();
+        Set<List<Integer>> distinct = new HashSet<>();
+
+        for (List<Edge<Integer>> path : paths) {
+            List<Integer> nodes = new ArrayList<>();
+
+            for (Edge<Integer> edge : path) {
+                nodes.add(edge.getDestination());
+            }
+            assertTrue(distinct.add(nodes), "path " + nodes + " found twice");
+            costs.add(TestGraphs.costOf(graph, from, to, path));
+        }
+
+        for (int i = 1; i < costs.size(); i++) {
+            assertTrue(costs.get(i - 1) <= costs.get(i), "paths out of order: " + costs);
+        }
+
+        return costs;
+    }
+}
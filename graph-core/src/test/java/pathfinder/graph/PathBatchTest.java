@@ -0,0 +1,96 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+// Batches of queries against a snapshot, in order and within their own time limits,
+// and the results they hand back
+class PathBatchTest {
+    private static final int CHAIN = 20_000;
+
+    @Test
+    void answersInQueryOrder() throws InterruptedException {
+        Random random = new Random(61);
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        TestGraphs.fill(random, 12, 0.3, 9, graph);
+
+        GraphSnapshot<Integer> snapshot = graph.snapshot();
+        List<PathQuery<Integer>> queries = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            queries.add(new PathQuery<>(random.nextInt(12), random.nextInt(12)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            List<PathResult<Integer>> results = new PathBatch<>(snapshot, executor).run(queries, 10, TimeUnit.SECONDS);
+
+            for (int i = 0; i < queries.size(); i++) {
+                PathQuery<Integer> query = queries.get(i);
+                long expected = TestGraphs.shortest(graph, query.getFrom(), query.getTo());
+                PathResult<Integer> result = results.get(i);
+
+                assertEquals(expected < 0 ? PathResult.Status.NO_PATH : PathResult.Status.FOUND, result.getStatus());
+                if (expected >= 0) {
+                    assertEquals(expected, TestGraphs.costOf(graph, query.getFrom(), query.getTo(), result.getPath()));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void stopsSearchesThatRunOutOfTime() throws InterruptedException {
+        GraphSnapshot<Integer> snapshot = chain().snapshot();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        assertThrows(CancellationException.class, () -> snapshot.getPath(0, CHAIN - 1, System.nanoTime()));
+
+        try {
+            List<PathResult<Integer>> results = new PathBatch<>(snapshot, executor)
+                    .run(List.of(new PathQuery<>(0, CHAIN - 1), new PathQuery<>(0, 1)), 0, TimeUnit.NANOSECONDS);
+
+            assertEquals(PathResult.Status.TIMED_OUT, results.get(0).getStatus());
+            // Too short a search to reach a deadline check
+            assertEquals(PathResult.Status.FOUND, results.get(1).getStatus());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void addsUpWeightsPastTheIntRange() {
+        List<Edge<Integer>> path = List.of(new Edge<>(1, "long", Integer.MAX_VALUE),
+                new Edge<>(2, "long", Integer.MAX_VALUE));
+        PathResult<Integer> result = PathResult.of(path);
+
+        assertEquals(2L * Integer.MAX_VALUE, result.getTotalWeight());
+        assertEquals(path + ", total " + 2L * Integer.MAX_VALUE, result.toString());
+    }
+
+    private static ListGraph<Integer> chain() {
+        ListGraph<Integer> graph = new ListGraph<>();
+
+        for (int node = 0; node < CHAIN; node++) {
+            graph.add(node);
+            if (node > 0) {
+                graph.connect(node - 1, node, "road", 1);
+            }
+        }
+
+        return graph;
+    }
+}
@@ -0,0 +1,174 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// ListGraph (on its IntGraph core), ConcurrentListGraph and PathSearch against the
+// cheapest of all loopless paths, on small random graphs and after changes to them
+class ShortestPathTest {
+    private static final int GRAPHS = 500;
+
+    @Test
+    void findsTheCheapestPath() {
+        Random random = new Random(1);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            ConcurrentListGraph<Integer> concurrent = new ConcurrentListGraph<>();
+            int size = 1 + random.nextInt(9);
+
+            TestGraphs.fill(random, size, random.nextDouble(), 5, graph, concurrent);
+            checkAllPairs(graph, concurrent, size);
+        }
+    }
+
+    @Test
+    void staysCorrectAfterChanges() {
+        Random random = new Random(2);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            ConcurrentListGraph<Integer> concurrent = new ConcurrentListGraph<>();
+            int size = 2 + random.nextInt(8);
+
+            TestGraphs.fill(random, size, 0.6, 5, graph, concurrent);
+
+            for (int change = 0; change < 5; change++) {
+                int a = random.nextInt(size);
+                int b = random.nextInt(size);
+
+                if (graph.getEdgeBetween(a, b) != null) {
+                    if (random.nextBoolean()) {
+                        graph.disconnect(a, b);
+                        concurrent.disconnect(a, b);
+                    } else {
+                        int weight = random.nextInt(6);
+
+                        graph.setConnectionWeight(a, b, weight);
+                        concurrent.setConnectionWeight(a, b, weight);
+                    }
+                } else {
+                    graph.connect(a, b, "new", 1);
+                    concurrent.connect(a, b, "new", 1);
+                }
+            }
+            checkAllPairs(graph, concurrent, size);
+
+            // Removing a node frees its id for the next one added
+            int removed = random.nextInt(size);
+
+            graph.remove(removed);
+            concurrent.remove(removed);
+            graph.add(removed);
+            concurrent.add(removed);
+            checkAllPairs(graph, concurrent, size);
+        }
+    }
+
+    @Test
+    void answersWithTheCacheAndConnectivityIndex() {
+        Random random = new Random(3);
+
+        for (int round = 0; round < GRAPHS; round++) {
+            ListGraph<Integer> graph = new ListGraph<>();
+            ListGraph<Integer> plain = new ListGraph<>();
+            int size = 2 + random.nextInt(8);
+
+            graph.enablePathCache(16);
+            graph.enableConnectivityIndex();
+            TestGraphs.fill(random, size, 0.3, 5, graph, plain);
+            checkAllPairs(graph, plain, size);
+
+            int a = random.nextInt(size);
+            int b = random.nextInt(size);
+
+            if (graph.getEdgeBetween(a, b) != null) {
+                graph.disconnect(a, b);
+                plain.disconnect(a, b);
+            }
+            checkAllPairs(graph, plain, size);
+        }
+    }
+
+    // A hub has enough neighbours for the core to index its row, whichever end its
+    // connections were made from
+    @Test
+    void keepsHubRowsConsistent() {
+        ListGraph<Integer> graph = new ListGraph<>();
+        List<Integer> leaves = new ArrayList<>();
+
+        graph.add(0);
+        for (int leaf = 1; leaf <= 100; leaf++) {
+            graph.add(leaf);
+            if (leaf % 3 == 0) {
+                graph.connect(leaf, 0, "spoke" + leaf, leaf);
+            } else {
+                graph.connect(0, leaf, "spoke" + leaf, leaf);
+            }
+            leaves.add(leaf);
+        }
+
+        for (int leaf = 2; leaf <= 100; leaf += 2) {
+            graph.disconnect(leaf, 0);
+        }
+        graph.setConnectionWeight(0, 51, 7);
+
+        for (int leaf : leaves) {
+            Edge<Integer> edge = graph.getEdgeBetween(0, leaf);
+
+            if (leaf % 2 == 0) {
+                assertNull(edge);
+                assertNull(graph.getPath(0, leaf));
+            } else {
+                assertNotNull(edge);
+                assertEquals("spoke" + leaf, edge.getName());
+                assertEquals(leaf == 51 ? 7 : leaf, edge.getWeight());
+                assertEquals(0, graph.getEdgeBetween(leaf, 0).getDestination());
+                assertEquals(edge.getWeight(), graph.getEdgeBetween(leaf, 0).getWeight());
+            }
+        }
+        assertEquals(50, graph.getEdgesFrom(0).size());
+        assertEquals(1 + 7, TestGraphs.costOf(graph, 1, 51, graph.getPath(1, 51)));
+
+        // Edges handed out write their weight through to the graph
+        long version = graph.getVersion();
+        graph.getEdgeBetween(53, 0).setWeight(2);
+
+        assertEquals(2, graph.getEdgeBetween(0, 53).getWeight());
+        assertEquals(version + 1, graph.getVersion());
+        assertThrows(IllegalArgumentException.class, () -> graph.getEdgeBetween(0, 53).setWeight(-1));
+    }
+
+    private static void checkAllPairs(Graph<Integer> graph, Graph<Integer> other, int size) {
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                long expected = TestGraphs.shortest(graph, from, to);
+
+                assertEquals(expected >= 0, graph.pathExists(from, to));
+                assertEquals(expected >= 0, other.pathExists(from, to));
+                assertEquals(expected, costOrUnreachable(graph, from, to, graph.getPath(from, to)));
+                assertEquals(expected, costOrUnreachable(other, from, to, other.getPath(from, to)));
+                assertEquals(expected,
+                        costOrUnreachable(graph, from, to, new PathSearch<>(graph).find(from, to)));
+
+                if (graph instanceof ListGraph<Integer> list) {
+                    assertEquals(expected >= 0, list.pathExistsBidirectional(from, to));
+                    assertEquals(expected,
+                            costOrUnreachable(graph, from, to, list.getPath(from, to, (node, target) -> 0)));
+                }
+            }
+        }
+    }
+
+    private static long costOrUnreachable(Graph<Integer> graph, int from, int to, List<Edge<Integer>> path) {
+        return path == null ? -1 : TestGraphs.costOf(graph, from, to, path);
+    }
+}
@@ -0,0 +1,160 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+// Nearest, k nearest and range queries against a scan of every place, as the index
+// grows, shrinks and holds places on top of each other
+class SpatialIndexTest {
+    private static final int QUERIES = 50;
+
+    @Test
+    void matchesAScanWhileGrowingAndShrinking() {
+        Random random = new Random(81);
+        SpatialIndex<City> index = new SpatialIndex<>();
+        List<City> places = new ArrayList<>();
+
+        assertNull(index.nearest(0, 0));
+        assertTrue(index.range(-1, -1, 1, 1).isEmpty());
+
+        // Each round reaches further out, doubling the root towards every side
+        for (int round = 0; round < 12; round++) {
+            double spread = Math.pow(4, round);
+
+            for (int i = 0; i < 60; i++) {
+                City place = new City("P" + places.size(), (random.nextDouble() * 2 - 1) * spread,
+                        (random.nextDouble() * 2 - 1) * spread);
+
+                index.add(place);
+                places.add(place);
+            }
+            for (int i = 0; i < 25; i++) {
+                City removed = places.remove(random.nextInt(places.size()));
+
+                assertTrue(index.remove(removed));
+                assertFalse(index.remove(removed));
+            }
+
+            assertEquals(places.size(), index.size());
+            check(random, index, places, spread * 1.5);
+        }
+
+        while (!places.isEmpty()) {
+            assertTrue(index.remove(places.remove(places.size() - 1)));
+        }
+
+        assertEquals(0, index.size());
+        assertNull(index.nearest(0, 0));
+    }
+
+    @Test
+    void matchesAScanOnDuplicateAndClusteredPlaces() {
+        Random random = new Random(82);
+        SpatialIndex<City> index = new SpatialIndex<>();
+        List<City> places = new ArrayList<>();
+
+        // Far more places on one spot than a leaf holds, a cluster too tight to split
+        // much, and a few places around them
+        for (int i = 0; i < 40; i++) {
+            places.add(new City("D" + i, 10, 10));
+        }
+        for (int i = 0; i < 100; i++) {
+            places.add(new City("C" + i, 20 + random.nextDouble() * 1e-5, 20 + random.nextDouble() * 1e-5));
+        }
+        for (int i = 0; i < 30; i++) {
+            places.add(new City("S" + i, random.nextDouble() * 40, random.nextDouble() * 40));
+        }
+        for (City place : places) {
+            index.add(place);
+        }
+
+        check(random, index, places, 40);
+
+        // Removing one of the places on a spot leaves the others there
+        for (int i = 0; i < 30; i++) {
+            assertTrue(index.remove(places.remove(0)));
+        }
+        for (int i = 0; i < 60; i++) {
+            assertTrue(index.remove(places.remove(places.size() - 31)));
+        }
+
+        assertEquals(places.size(), index.size());
+        check(random, index, places, 40);
+    }
+
+    private static void check(Random random, SpatialIndex<City> index, List<City> places, double spread) {
+        Predicate<City> even = place -> Integer.parseInt(place.getName().substring(1)) % 2 == 0;
+
+        for (int query = 0; query < QUERIES; query++) {
+            double x = (random.nextDouble() * 2 - 1) * spread;
+            double y = (random.nextDouble() * 2 - 1) * spread;
+            int k = 1 + random.nextInt(20);
+
+            checkNearest(index.nearest(x, y, k), places, x, y, k, place -> true);
+            checkNearest(index.nearest(x, y, k, even), places, x, y, k, even);
+            checkNearest(nullable(index.nearest(x, y)), places, x, y, 1, place -> true);
+            checkNearest(nullable(index.nearest(x, y, even)), places, x, y, 1, even);
+
+            double width = random.nextDouble() * spread;
+            double height = random.nextDouble() * spread;
+            Set<City> expected = new HashSet<>();
+
+            for (City place : places) {
+                if (place.getxPos() >= x && place.getxPos() <= x + width && place.getyPos() >= y
+                        && place.getyPos() <= y + height) {
+                    expected.add(place);
+                }
+            }
+
+            List<City> found = index.range(x, y, x + width, y + height);
+
+            assertEquals(expected.size(), found.size());
+            assertEquals(expected, new HashSet<>(found));
+        }
+    }
+
+    // Places at the same distance may come in any order, so the distances are compared
+    private static void checkNearest(List<City> found, List<City> places, double x, double y, int k,
+            Predicate<City> filter) {
+        List<Double> expected = new ArrayList<>();
+
+        for (City place : places) {
+            if (filter.test(place)) {
+                expected.add(distance(place, x, y));
+            }
+        }
+        expected.sort(null);
+
+        List<Double> distances = new ArrayList<>();
+
+        for (City place : found) {
+            assertTrue(places.contains(place) && filter.test(place));
+            distances.add(distance(place, x, y));
+        }
+
+        assertEquals(found.size(), new HashSet<>(found).size());
+        assertEquals(expected.subList(0, Math.min(k, expected.size())), distances);
+    }
+
+    private static List<City> nullable(City place) {
+        return place == null ? List.of() : List.of(place);
+    }
+
+    private static double distance(City place, double x, double y) {
+        double dx = place.getxPos() - x;
+        double dy = place.getyPos() - y;
+
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,101 @@
+package pathfinder.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Small random graphs and the brute-force answers the searches are checked against
+final class TestGraphs {
+    private TestGraphs() {
+    }
+
+    // The same random graph over nodes 0..size-1 in every given graph, each pair
+    // connected with the given probability and weights from 0 to maxWeight
+    @SafeVarargs
+    static void fill(Random random, int size, double density, int maxWeight, Graph<Integer>... graphs) {
+        for (int node = 0; node < size; node++) {
+            for (Graph<Integer> graph : graphs) {
+                graph.add(node);
+            }
+        }
+
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                if (random.nextDouble() < density) {
+                    int weight = random.nextInt(maxWeight + 1);
+
+                    for (Graph<Integer> graph : graphs) {
+                        graph.connect(a, b, "r" + a + "-" + b, weight);
+                    }
+                }
+            }
+        }
+    }
+
+    // The cost of every loopless path from from to to, cheapest first
+    static <T> List<Long> simplePathCosts(Graph<T> graph, T from, T to) {
+        List<Long> costs = new ArrayList<>();
+        Set<T> visited = new HashSet<>();
+
+        visited.add(from);
+        walk(graph, from, to, visited, 0, costs);
+        Collections.sort(costs);
+
+        return costs;
+    }
+
+    // The cheapest cost from from to to, or -1 if to cannot be reached
+    static <T> long shortest(Graph<T> graph, T from, T to) {
+        List<Long> costs = simplePathCosts(graph, from, to);
+
+        return costs.isEmpty() ? -1 : costs.get(0);
+    }
+
+    // Checks that the path is a loopless walk over the graph's edges from from to to
+    // and returns its cost
+    static <T> long costOf(Graph<T> graph, T from, T to, List<Edge<T>> path) {
+        assertNotNull(path);
+
+        Set<T> visited = new HashSet<>();
+        T current = from;
+        long cost = 0;
+
+        visited.add(from);
+        for (Edge<T> edge : path) {
+            Edge<T> actual = graph.getEdgeBetween(current, edge.getDestination());
+
+            assertNotNull(actual, "no edge from " + current + " to " + edge.getDestination());
+            assertEquals(actual.getWeight(), edge.getWeight());
+            assertTrue(visited.add(edge.getDestination()), "path visits " + edge.getDestination() + " twice");
+
+            current = edge.getDestination();
+            cost += edge.getWeight();
+        }
+        assertEquals(to, current);
+
+        return cost;
+    }
+
+    private static <T> void walk(Graph<T> graph, T current, T to, Set<T> visited, long cost, List<Long> costs) {
+        if (current.equals(to)) {
+            costs.add(cost);
+            return;
+        }
+
+        for (Edge<T> edge : graph.getEdgesFrom(current)) {
+            T next = edge.getDestination();
+
+            if (visited.add(next)) {
+                walk(graph, next, to, visited, cost + edge.getWeight(), costs);
+                visited.remove(next);
+            }
+        }
+    }
+}
@@ -1,11 +1,15 @@
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 
-public class CustomCircle extends Circle {
+import pathfinder.graph.Place;
+
+public class CustomCircle extends Circle implements Place {
+    public static final double RADIUS = 15;
+
     private final String name;
 
     public CustomCircle(double x, double y, String name) {
-        super(x, y, 15);
+        super(x, y, RADIUS);
         setFill(Color.BLUE);
         this.name = name;
         setId(name);
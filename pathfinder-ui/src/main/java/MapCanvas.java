@@ -0,0 +1,232 @@
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import pathfinder.graph.ConnectionIndex;
+import pathfinder.graph.GraphListener;
+import pathfinder.graph.ListGraph;
+import pathfinder.graph.SpatialIndex;
+
+// Draws the map, its connections and places onto a single canvas instead of one scene
+// graph node each. Only connections whose bounding box overlaps the viewport and
+// places inside it are visited, clicks are resolved through a spatial index, dragging pans and the
+// scroll wheel zooms around the pointer.
+public class MapCanvas extends Pane implements GraphListener<CustomCircle> {
+    private static final double MIN_SCALE = 0.01;
+    private static final double MAX_SCALE = 50;
+    private static final double ZOOM_PER_SCROLL_UNIT = 1.0015;
+    private static final double LINE_WIDTH = 3;
+    // Below this radius in pixels places are drawn as squares
+    private static final double MIN_CIRCLE_PIXELS = 1.5;
+    // Connections longer than this in map units are culled one by one instead of
+    // through the places index
+    private static final double LONG_CONNECTION = 400;
+
+    private final Canvas canvas = new Canvas();
+    private ListGraph<CustomCircle> graph;
+    private SpatialIndex<CustomCircle> index;
+    private ConnectionIndex<CustomCircle> connections;
+    private Image image;
+    private double scale = 1;
+    private double offsetX;
+    private double offsetY;
+    private double dragX;
+    private double dragY;
+    private boolean redrawPending;
+    private Consumer<CustomCircle> onPlaceClicked = place -> {
+    };
+
+    public MapCanvas() {
+        getChildren().add(canvas);
+        canvas.widthProperty().bind(widthProperty());
+        canvas.heightProperty().bind(heightProperty());
+        canvas.widthProperty().addListener(observable -> requestRedraw());
+        canvas.heightProperty().addListener(observable -> requestRedraw());
+
+        setOnMousePressed(this::startDrag);
+        setOnMouseDragged(this::drag);
+        setOnMouseClicked(this::click);
+        setOnScroll(this::zoom);
+    }
+
+    public void show(ListGraph<CustomCircle> graph, Image image) {
+        if (this.graph != null) {
+            this.graph.removeListener(this);
+            this.graph.removeListener(index);
+            connections.detach();
+        }
+
+        this.graph = graph;
+        this.image = image;
+        index = SpatialIndex.attach(graph);
+        connections = ConnectionIndex.attach(graph, index, LONG_CONNECTION);
+        graph.addListener(this);
+
+        scale = 1;
+        offsetX = 0;
+        offsetY = 0;
+        if (image != null) {
+            setPrefSize(image.getWidth(), image.getHeight());
+        }
+
+        requestRedraw();
+    }
+
+    public void setOnPlaceClicked(Consumer<CustomCircle> onPlaceClicked) {
+        this.onPlaceClicked = onPlaceClicked;
+    }
+
+    // Map coordinates of a point on the canvas
+    public Point2D toWorld(double x, double y) {
+        return new Point2D((x - offsetX) / scale, (y - offsetY) / scale);
+    }
+
+    // The place drawn under a point on the canvas, or null
+    public CustomCircle placeAt(double x, double y) {
+        if (index == null) {
+            return null;
+        }
+
+        Point2D world = toWorld(x, y);
+        CustomCircle place = index.nearest(world.getX(), world.getY());
+
+        if (place == null) {
+            return null;
+        }
+
+        double reach = Math.max(place.getRadius(), MIN_CIRCLE_PIXELS / scale);
+        double dx = place.getxPos() - world.getX();
+        double dy = place.getyPos() - world.getY();
+
+        return dx * dx + dy * dy <= reach * reach ? place : null;
+    }
+
+    // Coalesces any number of requests into one redraw on the next pulse
+    public void requestRedraw() {
+        if (!redrawPending) {
+            redrawPending = true;
+            Platform.runLater(this::redraw);
+        }
+    }
+
+    @Override
+    public void nodeAdded(CustomCircle node) {
+        requestRedraw();
+    }
+
+    @Override
+    public void nodeRemoved(CustomCircle node) {
+        requestRedraw();
+    }
+
+    @Override
+    public void connected(CustomCircle a, CustomCircle b, String name, int weight) {
+        requestRedraw();
+    }
+
+    @Override
+    public void disconnected(CustomCircle a, CustomCircle b) {
+        requestRedraw();
+    }
+
+    private void redraw() {
+        redrawPending = false;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setTransform(scale, 0, 0, scale, offsetX, offsetY);
+
+        if (image != null) {
+            gc.drawImage(image, 0, 0);
+        }
+
+        if (graph == null) {
+            return;
+        }
+
+        // Visible rectangle in map coordinates
+        Point2D topLeft = toWorld(0, 0);
+        Point2D bottomRight = toWorld(canvas.getWidth(), canvas.getHeight());
+        double minX = topLeft.getX();
+        double minY = topLeft.getY();
+        double maxX = bottomRight.getX();
+        double maxY = bottomRight.getY();
+        double lineWidth = Math.max(LINE_WIDTH, 1 / scale);
+        double halfLine = lineWidth / 2;
+
+        // Connections in one path, each tested against the viewport, widened by half the
+        // line width, by its own bounding box
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(lineWidth);
+        gc.beginPath();
+
+        connections.forEachInRange(minX - halfLine, minY - halfLine, maxX + halfLine, maxY + halfLine, (a, b) -> {
+            gc.moveTo(a.getxPos(), a.getyPos());
+            gc.lineTo(b.getxPos(), b.getyPos());
+        });
+
+        gc.stroke();
+
+        // Places whose circle or square reaches into the viewport
+        double reach = Math.max(CustomCircle.RADIUS, MIN_CIRCLE_PIXELS / scale);
+
+        index.forEachInRange(minX - reach, minY - reach, maxX + reach, maxY + reach, place -> {
+            double radius = place.getRadius();
+
+            gc.setFill(place.getFill());
+            if (radius * scale < MIN_CIRCLE_PIXELS) {
+                double side = 2 * MIN_CIRCLE_PIXELS / scale;
+                gc.fillRect(place.getxPos() - side / 2, place.getyPos() - side / 2, side, side);
+            } else {
+                gc.fillOval(place.getxPos() - radius, place.getyPos() - radius, 2 * radius, 2 * radius);
+            }
+        });
+    }
+
+    private void startDrag(MouseEvent event) {
+        dragX = event.getX();
+        dragY = event.getY();
+    }
+
+    private void drag(MouseEvent event) {
+        offsetX += event.getX() - dragX;
+        offsetY += event.getY() - dragY;
+        dragX = event.getX();
+        dragY = event.getY();
+        requestRedraw();
+    }
+
+    private void click(MouseEvent event) {
+        if (!event.isStillSincePress()) {
+            return;
+        }
+
+        CustomCircle place = placeAt(event.getX(), event.getY());
+
+        if (place != null) {
+            onPlaceClicked.accept(place);
+            requestRedraw();
+        }
+    }
+
+    // Zooms keeping the map point under the pointer where it is
+    private void zoom(ScrollEvent event) {
+        double zoomed = Math.min(MAX_SCALE, Math.max(MIN_SCALE,
+                scale * Math.pow(ZOOM_PER_SCROLL_UNIT, event.getDeltaY())));
+        double factor = zoomed / scale;
+
+        offsetX = event.getX() - (event.getX() - offsetX) * factor;
+        offsetY = event.getY() - (event.getY() - offsetY) * factor;
+        scale = zoomed;
+        requestRedraw();
+    }
+}
@@ -0,0 +1,952 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+
+import javax.imageio.ImageIO;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.concurrent.Task;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.geometry.Point2D;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.Menu;
+import javafx.scene.control.MenuBar;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import pathfinder.graph.BinaryGraphFile;
+import pathfinder.graph.Edge;
+import pathfinder.graph.GraphBuilder;
+import pathfinder.graph.GraphJournal;
+import pathfinder.graph.GraphReader;
+import pathfinder.graph.ListGraph;
+
+public class PathFinder extends Application {
+    private static final String SAVE_FILE_NAME = "europa.graph";
+    private static final String BINARY_FILE_NAME = "europa" + BinaryGraphFile.EXTENSION;
+    private static final String IMAGE_FILE_NAME = "file:europa.gif";
+    private static final int PATH_CACHE_SIZE = 256;
+    private static final int RENDER_BATCH_SIZE = 1000;
+    private static final int ALTERNATIVE_ROUTES = 2;
+    private ListGraph<CustomCircle> listGraph = newGraph();
+    private Pane centerPane = new Pane();
+    private MapCanvas mapCanvas = new MapCanvas();
+    private boolean canvasMode;
+    private LoadTask loadTask;
+    private GraphJournal<CustomCircle> journal;
+    private BooleanProperty loading = new SimpleBooleanProperty();
+    private Stage stage;
+    private BorderPane root;
+    private boolean unSavedChanges;
+    private ImageView imageView;
+    private String image = IMAGE_FILE_NAME;
+    private CustomCircle circle1;
+    private CustomCircle circle2;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void stop() {
+        closeJournal();
+    }
+
+    @Override
+    public void start(Stage stage) {
+        this.stage = stage;
+        root = new BorderPane();
+        centerPane.setId("outputArea");
+        mapCanvas.setId("mapCanvas");
+        mapCanvas.setOnPlaceClicked(this::toggleSelection);
+
+        root.setTop(setRootTop());
+        root.setCenter(centerPane);
+
+        // ! ------------------ Stage ------------------
+        stage.setScene(new Scene(root));
+        stage.setOnCloseRequest(event -> {
+            if (!discardChanges())
+                event.consume();
+        });
+
+        stage.setTitle("PathFinder");
+        stage.show();
+    }
+
+    /*
+     * ------------------ Top Bar ------------------
+     */
+
+    private VBox setRootTop() {
+        VBox vbox = new VBox();
+
+        // ! ------------------ Menu ------------------
+        MenuBar menuBar = new MenuBar();
+        menuBar.setId("menu");
+        Menu menu = new Menu("File");
+        menu.setId("menuFile");
+
+        MenuItem newMap = new MenuItem("New Map");
+        newMap.setId("menuNewMap");
+        newMap.setOnAction(event -> {
+            if (!discardChanges())
+                return;
+
+            unSavedChanges = true;
+            root.setCenter(setRootCenter());
+        });
+
+        MenuItem open = new MenuItem("Open");
+        open.setId("menuOpenFile");
+        open.setOnAction(event -> {
+            if (!discardChanges())
+                return;
+
+            unSavedChanges = true;
+            root.setCenter(setRootCenter());
+            loadSavedGraph();
+        });
+
+        MenuItem openBinary = new MenuItem("Open Binary");
+        openBinary.setId("menuOpenBinaryFile");
+        openBinary.setOnAction(event -> {
+            if (!discardChanges())
+                return;
+
+            unSavedChanges = true;
+            root.setCenter(setRootCenter());
+            loadBinaryGraph();
+        });
+
+        MenuItem save = new MenuItem("Save");
+        save.setId("menuSaveFile");
+        save.setOnAction(event -> {
+            try {
+                // ! ------------------ Append the changes since the last save ------------------
+                if (journal == null) {
+                    journal = GraphJournal.create(Path.of(SAVE_FILE_NAME), image, listGraph);
+                    listGraph.addListener(journal);
+                } else {
+                    journal.sync();
+                }
+
+                unSavedChanges = false;
+            } catch (IOException e) {
+                errorAlert(String.format("Could not save %s: %s", SAVE_FILE_NAME, e.getMessage()));
+            }
+        });
+
+        MenuItem saveBinary = new MenuItem("Save Binary");
+        saveBinary.setId("menuSaveBinaryFile");
+        saveBinary.setOnAction(event -> {
+            try {
+                BinaryGraphFile.write(Path.of(BINARY_FILE_NAME), image, listGraph);
+            } catch (IOException e) {
+                errorAlert(String.format("Could not save %s: %s", BINARY_FILE_NAME, e.getMessage()));
+                return;
+            }
+
+            // ! The map's journal is saved too, so closing it later drops nothing
+            try {
+                if (journal != null) {
+                    journal.sync();
+                }
+
+                unSavedChanges = false;
+            } catch (IOException e) {
+                errorAlert(String.format("Could not save %s: %s", SAVE_FILE_NAME, e.getMessage()));
+            }
+        });
+
+        MenuItem saveImage = new MenuItem("Save Image");
+        saveImage.setId("menuSaveImage");
+        saveImage.setOnAction(event -> {
+            try {
+                WritableImage snapshot = root.getCenter().snapshot(null, null);
+                BufferedImage bufferedImage = SwingFXUtils.fromFXImage(snapshot, null);
+
+                ImageIO.write(bufferedImage, "png", new File("capture.png"));
+            } catch (IOException e) {
+                new Alert(Alert.AlertType.ERROR, String.format("IO-fel, %s",
+                        e.getMessage()));
+            }
+        });
+
+        MenuItem exit = new MenuItem("Exit");
+        exit.setId("menuExit");
+        exit.setOnAction(event -> {
+            if (!discardChanges())
+                return;
+
+            stage.close();
+        });
+
+        menu.getItems().addAll(newMap, open, openBinary, save, saveBinary, saveImage, exit);
+
+        Menu view = new Menu("View");
+        view.setId("menuView");
+
+        CheckMenuItem canvasRendering = new CheckMenuItem("Canvas Rendering");
+        canvasRendering.setId("menuCanvasRendering");
+        canvasRendering.disableProperty().bind(loading);
+        canvasRendering.setOnAction(event -> {
+            canvasMode = canvasRendering.isSelected();
+
+            if (imageView != null) {
+                redisplay();
+            }
+        });
+
+        view.getItems().add(canvasRendering);
+        menuBar.getMenus().addAll(menu, view);
+
+        // ! ------------------ Buttons ------------------
+        FlowPane flowPane = new FlowPane();
+
+        Button findPath = new Button("Find Path");
+        findPath.setId("btnFindPath");
+        findPath.setOnAction(event -> {
+            if (circle1 == null || circle2 == null) {
+                errorAlert("Two places must be selected!");
+                return;
+            }
+
+            List<Edge<CustomCircle>> path = listGraph.getPath(circle1, circle2);
+
+            if (path == null) {
+                errorAlert("No path available!");
+                return;
+            }
+
+            FindPathAlert alert = new FindPathAlert();
+            int total = 0;
+
+            for (Edge<CustomCircle> edge : path) {
+                alert.addText(edge.toString());
+                total += edge.getWeight();
+            }
+
+            alert.addText(String.format("Total: %d", total));
+            alert.showAndWait();
+        });
+
+        // Not cached like Find Path, so only run when asked for
+        Button findAlternatives = new Button("Find Alternatives");
+        findAlternatives.setId("btnFindAlternatives");
+        findAlternatives.setOnAction(event -> {
+            if (circle1 == null || circle2 == null) {
+                errorAlert("Two places must be selected!");
+                return;
+            }
+
+            List<List<Edge<CustomCircle>>> routes = listGraph.getPaths(circle1, circle2, 1 + ALTERNATIVE_ROUTES);
+
+            if (routes.isEmpty()) {
+                errorAlert("No path available!");
+                return;
+            }
+
+            FindPathAlert alert = new FindPathAlert();
+
+            // The shortest route first, then the next cheapest ones that differ from it
+            for (int i = 0; i < routes.size(); i++) {
+                int total = 0;
+
+                if (i > 0) {
+                    alert.addText(String.format("%nAlternative %d:", i));
+                }
+
+                for (Edge<CustomCircle> edge : routes.get(i)) {
+                    alert.addText(edge.toString());
+                    total += edge.getWeight();
+                }
+
+                alert.addText(String.format("Total: %d", total));
+            }
+
+            alert.showAndWait();
+        });
+
+        Button showConnection = new Button("Show Connection");
+        showConnection.setId("btnShowConnection");
+        showConnection.setOnAction(event -> {
+            if (circle1 == null || circle2 == null) {
+                errorAlert("Two places must be selected!");
+                return;
+            }
+
+            if (listGraph.getEdgeBetween(circle1, circle2) == null) {
+                errorAlert("There is no connection between the nodes!");
+                return;
+            }
+
+            new ShowConnectionAlert().showAndWait();
+        });
+
+        Button newPlace = new Button("New Place");
+        newPlace.setId("btnNewPlace");
+        newPlace.setOnAction(event -> {
+            if (centerPane == null) {
+                errorAlert("No map available!");
+                return;
+            }
+
+            root.setCursor(Cursor.CROSSHAIR);
+            newPlace.setDisable(true);
+
+            centerPane.setOnMouseClicked(e -> {
+                NewPlaceAlert alert = new NewPlaceAlert();
+
+                Optional<ButtonType> response = alert.showAndWait();
+
+                if (response.isPresent() && response.get().equals(ButtonType.CANCEL)) {
+                    root.setCursor(Cursor.DEFAULT);
+                    newPlace.setDisable(false);
+                    return;
+                }
+
+                double valueX = e.getX();
+                double valueY = e.getY();
+
+                if (canvasMode) {
+                    Point2D world = mapCanvas.toWorld(valueX, valueY);
+                    valueX = world.getX();
+                    valueY = world.getY();
+                }
+
+                // Node node = new Node(alert.getNameOfPlace(), valueX, valueY);
+
+                CustomCircle circle = new CustomCircle(valueX, valueY, alert.getNameOfPlace());
+                circle.setId(circle.getName());
+                circle.setOnMouseClicked(new CircleHandler());
+
+                addCircle(circle);
+                listGraph.add(circle);
+
+                centerPane.setOnMouseClicked(null);
+                root.setCursor(Cursor.DEFAULT);
+                newPlace.setDisable(false);
+                unSavedChanges = true;
+            });
+        });
+
+        Button newConnection = new Button("New Connection");
+        newConnection.setId("btnNewConnection");
+        newConnection.setOnAction(event -> {
+            if (circle1 == null || circle2 == null) {
+                errorAlert("Two places must be selected!");
+                return;
+            }
+
+            try {
+                if (listGraph.getEdgeBetween(circle1, circle2) != null) {
+                    errorAlert("There can only be one edge between nodes!");
+                    return;
+                }
+
+                NewConnectionAlert alert = new NewConnectionAlert();
+                Optional<ButtonType> response = alert.showAndWait();
+
+                if (response.isPresent() && response.get().equals(ButtonType.CANCEL))
+                    return;
+
+                String name = alert.getName();
+                int time = alert.getTime();
+
+                listGraph.connect(circle1, circle2, name, time);
+                addLine(new CustomLine(circle1, circle2));
+                unSavedChanges = true;
+            } catch (NoSuchElementException e) {
+            }
+        });
+
+        Button changeConnection = new Button("Change Connection");
+        changeConnection.setId("btnChangeConnection");
+        changeConnection.setOnAction(event -> {
+            if (circle1 == null || circle2 == null) {
+                errorAlert("Two places must be selected!");
+                return;
+            }
+
+            if (listGraph.getEdgeBetween(circle1, circle2) == null) {
+                errorAlert("There is no edge between the selected nodes!");
+                return;
+            }
+
+            ChangeConnectionAlert alert = new ChangeConnectionAlert();
+
+            Optional<ButtonType> response = alert.showAndWait();
+
+            if (response.isPresent() && response.get().equals(ButtonType.CANCEL)) {
+                return;
+            }
+
+            int time = alert.getTime();
+            listGraph.setConnectionWeight(circle1, circle2, time);
+
+            unSavedChanges = true;
+        });
+
+        flowPane.getChildren().addAll(findPath, findAlternatives, showConnection, newPlace, newConnection, changeConnection);
+        flowPane.alignmentProperty().setValue(Pos.CENTER);
+        flowPane.setHgap(10);
+
+        vbox.getChildren().addAll(menuBar, flowPane);
+        return vbox;
+    }
+
+    /*
+     * ------------------ Functions ------------------
+     */
+
+    private Pane setRootCenter() {
+        closeJournal();
+
+        listGraph = newGraph();
+        circle1 = null;
+        circle2 = null;
+
+        image = IMAGE_FILE_NAME;
+        imageView = new ImageView(image);
+
+        redisplay();
+        stage.centerOnScreen();
+
+        return centerPane;
+    }
+
+    private static ListGraph<CustomCircle> newGraph() {
+        ListGraph<CustomCircle> graph = new ListGraph<>();
+        graph.enablePathCache(PATH_CACHE_SIZE);
+
+        return graph;
+    }
+
+    // The saved map is the snapshot plus the changes in its journal
+    private void loadSavedGraph() {
+        startLoading(new LoadTask(SAVE_FILE_NAME,
+                (builder, handler) -> GraphJournal.open(Path.of(SAVE_FILE_NAME), builder, handler)));
+    }
+
+    private void loadBinaryGraph() {
+        startLoading(new LoadTask(BINARY_FILE_NAME, (builder, handler) -> {
+            BinaryGraphFile.open(Path.of(BINARY_FILE_NAME)).read(handler);
+            return null;
+        }));
+    }
+
+    // Changes made since the last save go with it
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+
+        listGraph.removeListener(journal);
+
+        try {
+            journal.abandon();
+        } catch (IOException e) {
+            errorAlert(String.format("Could not close %s: %s", GraphJournal.journalOf(Path.of(SAVE_FILE_NAME)),
+                    e.getMessage()));
+        }
+
+        journal = null;
+    }
+
+    // Runs the task on a background thread with a progress bar and a cancel button
+    // at the bottom of the window until it finishes
+    private void startLoading(LoadTask task) {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(task.progressProperty());
+
+        Label message = new Label();
+        message.textProperty().bind(task.messageProperty());
+
+        Button cancel = new Button("Cancel");
+        cancel.setId("btnCancelLoad");
+        cancel.setOnAction(event -> task.cancel());
+
+        HBox status = new HBox(10, progressBar, message, cancel);
+        status.setId("loadStatus");
+        status.setAlignment(Pos.CENTER_LEFT);
+        status.setPadding(new Insets(5));
+
+        task.setOnSucceeded(event -> finishLoading(task));
+        task.setOnFailed(event -> {
+            finishLoading(task);
+            setRootCenter();
+            errorAlert(String.format("Could not load %s: %s", task.fileName, task.getException().getMessage()));
+        });
+        task.setOnCancelled(event -> {
+            finishLoading(task);
+            setRootCenter();
+        });
+
+        loadTask = task;
+        loading.set(true);
+        root.setBottom(status);
+
+        Thread thread = new Thread(task, "map-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void finishLoading(LoadTask task) {
+        if (loadTask == task) {
+            loadTask = null;
+            loading.set(false);
+            root.setBottom(null);
+        }
+    }
+
+    private void showGraph(ListGraph<CustomCircle> graph, String image) {
+        listGraph = graph;
+
+        // ! Image, kept so that saving writes the map it was opened with
+        this.image = image;
+        imageView.setImage(new Image(image));
+        showBackground();
+    }
+
+    // Rebuilds the center pane for the current graph in the chosen rendering mode
+    private void redisplay() {
+        showBackground();
+
+        if (!canvasMode) {
+            centerPane.getChildren().addAll(sceneNodes(listGraph));
+        }
+    }
+
+    // The map image, or in canvas mode the whole map
+    private void showBackground() {
+        centerPane.getChildren().clear();
+
+        if (canvasMode) {
+            mapCanvas.show(listGraph, imageView.getImage());
+            centerPane.getChildren().add(mapCanvas);
+        } else {
+            centerPane.getChildren().add(imageView);
+        }
+
+        stage.sizeToScene();
+    }
+
+    // Circles for the places, then one line per connection. The nodes are not attached
+    // to anything yet, so this may run off the FX Application thread.
+    private List<Node> sceneNodes(ListGraph<CustomCircle> graph) {
+        List<Node> nodes = new ArrayList<>();
+
+        // ! ------------------ The circles ------------------
+        for (CustomCircle circle : graph.getNodes()) {
+            circle.setOnMouseClicked(new CircleHandler());
+            nodes.add(circle);
+        }
+
+        // ! ------------------ The lines, once per connection ------------------
+        Set<CustomCircle> drawn = new HashSet<>();
+
+        for (CustomCircle circle : graph.getNodes()) {
+            drawn.add(circle);
+
+            for (Edge<CustomCircle> edge : graph.getEdgesFrom(circle)) {
+                if (!drawn.contains(edge.getDestination())) {
+                    nodes.add(new CustomLine(circle, edge.getDestination()));
+                }
+            }
+        }
+
+        return nodes;
+    }
+
+    // The canvas picks up new places and connections from the graph by itself
+    private void addCircle(CustomCircle circle) {
+        if (!canvasMode) {
+            centerPane.getChildren().add(circle);
+        }
+    }
+
+    private void addLine(CustomLine line) {
+        if (!canvasMode) {
+            centerPane.getChildren().add(line);
+        }
+    }
+
+    private void toggleSelection(CustomCircle c) {
+        if (circle1 == c) {
+            circle1 = null;
+            c.setFill(Color.BLUE);
+        } else if (circle2 == c) {
+            circle2 = null;
+            c.setFill(Color.BLUE);
+        } else if (circle1 == null) {
+            circle1 = c;
+            c.setFill(Color.RED);
+        } else if (circle2 == null && circle1 != c) {
+            circle2 = c;
+            c.setFill(Color.RED);
+        }
+    }
+
+    // Asks before throwing away unsaved changes, true if there are none or the user agrees
+    private boolean discardChanges() {
+        if (!unSavedChanges) {
+            return true;
+        }
+
+        Alert alert = new Alert(AlertType.CONFIRMATION);
+
+        alert.setHeaderText(null);
+        alert.setContentText("Unsaved changes, continue anyway?");
+
+        Optional<ButtonType> response = alert.showAndWait();
+
+        return !(response.isPresent() && response.get().equals(ButtonType.CANCEL));
+    }
+
+    private void errorAlert(String msg) {
+        Alert alert = new Alert(AlertType.ERROR);
+
+        alert.setHeaderText(null);
+        alert.setContentText(msg);
+        alert.showAndWait();
+    }
+
+    /*
+     * ------------------ Classes (Handlers) ------------------
+     */
+
+    class CircleHandler implements EventHandler<MouseEvent> {
+        public void handle(MouseEvent event) {
+            toggleSelection((CustomCircle) event.getSource());
+        }
+    }
+
+    /*
+     * ------------------ Classes (Loading) ------------------
+     */
+
+    // Reads a map into the builder, feeding the file's records through the handler.
+    // Returns the map's journal, or null if it has none.
+    interface MapSource {
+        GraphJournal<CustomCircle> read(GraphBuilder<CustomCircle> builder, GraphReader.Handler handler)
+                throws IOException;
+    }
+
+    // Parses the file into a new graph and builds its scene nodes, hands the graph to
+    // the UI so it can be queried, then adds the nodes in batches. Each batch waits for
+    // the previous one to be applied so the FX Application thread stays responsive.
+    class LoadTask extends Task<ListGraph<CustomCircle>> {
+        private final String fileName;
+        private final MapSource source;
+        private volatile boolean published;
+
+        LoadTask(String fileName, MapSource source) {
+            this.fileName = fileName;
+            this.source = source;
+        }
+
+        @Override
+        protected ListGraph<CustomCircle> call() throws Exception {
+            updateMessage(String.format("Reading %s", fileName));
+
+            ListGraph<CustomCircle> graph = newGraph();
+            GraphBuilder<CustomCircle> builder = new GraphBuilder<>(graph,
+                    (name, x, y) -> new CustomCircle(x, y, name));
+
+            GraphJournal<CustomCircle> opened = source.read(builder, new CancellableHandler(builder));
+
+            if (opened != null) {
+                graph.addListener(opened);
+            }
+
+            // Once published the graph belongs to the FX Application thread, where the
+            // user may already be editing it, so its scene nodes are built before that
+            List<Node> nodes = canvasMode ? List.of() : sceneNodes(graph);
+
+            runOnFxThread(() -> {
+                published = true;
+                journal = opened;
+                showGraph(graph, builder.getImage());
+            });
+
+            if (!published && opened != null) {
+                opened.close();
+            }
+
+            for (int start = 0; start < nodes.size(); start += RENDER_BATCH_SIZE) {
+                List<Node> batch = nodes.subList(start, Math.min(nodes.size(), start + RENDER_BATCH_SIZE));
+
+                runOnFxThread(() -> centerPane.getChildren().addAll(batch));
+                updateProgress(start + batch.size(), nodes.size());
+                updateMessage(String.format("Drawing %d of %d", start + batch.size(), nodes.size()));
+            }
+
+            return graph;
+        }
+
+        private void runOnFxThread(Runnable action) throws Exception {
+            FutureTask<Void> step = new FutureTask<>(() -> {
+                if (!isCancelled()) {
+                    action.run();
+                }
+            }, null);
+
+            Platform.runLater(step);
+            step.get();
+        }
+
+        // Stops the reader at the next record once the task is cancelled
+        class CancellableHandler implements GraphReader.Handler {
+            private final GraphReader.Handler handler;
+            private int places;
+
+            CancellableHandler(GraphReader.Handler handler) {
+                this.handler = handler;
+            }
+
+            public void image(String image) {
+                handler.image(image);
+            }
+
+            public void place(String name, double x, double y) {
+                checkCancelled();
+                handler.place(name, x, y);
+
+                if (++places % RENDER_BATCH_SIZE == 0) {
+                    updateMessage(String.format("Reading %s, %d places", fileName, places));
+                }
+            }
+
+            public void connection(String from, String to, String name, int weight) {
+                checkCancelled();
+                handler.connection(from, to, name, weight);
+            }
+
+            private void checkCancelled() {
+                if (isCancelled()) {
+                    throw new CancellationException();
+                }
+            }
+        }
+    }
+
+    /*
+     * ------------------ Classes (Alerts) ------------------
+     */
+
+    class FindPathAlert extends Alert {
+        private TextArea textArea = new TextArea();
+
+        FindPathAlert() {
+            super(AlertType.INFORMATION);
+
+            GridPane grid = new GridPane();
+
+            grid.setAlignment(Pos.CENTER);
+            grid.setPadding(new Insets(10));
+            grid.setHgap(10);
+            grid.setVgap(10);
+
+            grid.addRow(0, textArea);
+
+            textArea.setEditable(false);
+
+            setHeaderText(String.format("The path from %s to %s:", circle1.getName(),
+                    circle2.getName()));
+            getDialogPane().setContent(grid);
+        }
+
+        public void addText(String text) {
+            textArea.setText(String.format("%s\n%s", textArea.getText(), text));
+        }
+    }
+
+    class ChangeConnectionAlert extends Alert {
+        private TextField nameField = new TextField();
+        private TextField timeField = new TextField();
+
+        ChangeConnectionAlert() {
+            super(AlertType.CONFIRMATION);
+            GridPane grid = new GridPane();
+
+            CustomCircle n1 = null;
+            CustomCircle n2 = null;
+
+            for (CustomCircle circle : listGraph.getNodes()) {
+                if (circle.equals(circle1)) {
+                    n1 = circle;
+                } else if (circle.equals(circle2)) {
+                    n2 = circle;
+                }
+            }
+
+            grid.setAlignment(Pos.CENTER);
+            grid.setPadding(new Insets(10));
+            grid.setHgap(10);
+            grid.setVgap(10);
+
+            grid.addRow(0, new Label("Name:"), nameField);
+            grid.addRow(1, new Label("Time:"), timeField);
+
+            nameField.setText(listGraph.getEdgeBetween(n1, n2).getName());
+            nameField.setEditable(false);
+
+            setHeaderText(String.format("Connection from %s to %s", n1.getName(), n2.getName()));
+            getDialogPane().setContent(grid);
+        }
+
+        public int getTime() {
+            return Integer.parseInt(timeField.getText());
+        }
+    }
+
+    class ShowConnectionAlert extends Alert {
+        private TextField nameField = new TextField();
+        private TextField timeField = new TextField();
+
+        ShowConnectionAlert() {
+            super(AlertType.CONFIRMATION);
+            GridPane grid = new GridPane();
+
+            String nameFrom = null;
+            String nameTo = null;
+
+            for (CustomCircle node : listGraph.getNodes()) {
+                if (node.equals(circle1)) {
+                    nameFrom = node.getName();
+                } else if (node.equals(circle2)) {
+                    nameTo = node.getName();
+                }
+            }
+
+            grid.setAlignment(Pos.CENTER);
+            grid.setPadding(new Insets(10));
+            grid.setHgap(10);
+            grid.setVgap(10);
+
+            grid.addRow(0, new Label("Name:"), nameField);
+            grid.addRow(1, new Label("Time:"), timeField);
+
+            nameField.setText(listGraph.getEdgeBetween(circle1, circle2).getName());
+            timeField.setText(Integer.toString(
+                    listGraph.getEdgeBetween(circle1, circle2).getWeight()));
+
+            nameField.setEditable(false);
+            timeField.setEditable(false);
+
+            setHeaderText(String.format("Connection from %s to %s", nameFrom, nameTo));
+
+            getDialogPane().setContent(grid);
+        }
+    }
+
+    class NewConnectionAlert extends Alert {
+        private TextField nameField = new TextField();
+        private TextField timeField = new TextField();
+
+        NewConnectionAlert() {
+            super(AlertType.CONFIRMATION);
+            GridPane grid = new GridPane();
+
+            String nameFrom = null;
+            String nameTo = null;
+
+            for (CustomCircle node : listGraph.getNodes()) {
+                if (node.equals(circle1)) {
+                    nameFrom = node.getName();
+                } else if (node.equals(circle2)) {
+                    nameTo = node.getName();
+                }
+            }
+
+            grid.setAlignment(Pos.CENTER);
+            grid.setPadding(new Insets(10));
+            grid.setHgap(10);
+            grid.setVgap(10);
+
+            grid.addRow(0, new Label("Name:"), nameField);
+            grid.addRow(1, new Label("Time:"), timeField);
+
+            setHeaderText(String.format("Connection from %s to %s", nameFrom, nameTo));
+
+            getDialogPane().setContent(grid);
+        }
+
+        public String getName() {
+            return nameField.getText();
+        }
+
+        public int getTime() {
+            return Integer.parseInt(timeField.getText());
+        }
+    }
+
+    class NewPlaceAlert extends Alert {
+        private TextField nameOfPlace = new TextField();
+
+        NewPlaceAlert() {
+            super(AlertType.CONFIRMATION);
+            GridPane grid = new GridPane();
+
+            setHeaderText(null);
+
+            grid.setAlignment(Pos.CENTER);
+            grid.setPadding(new Insets(10));
+            grid.setHgap(10);
+
+            grid.addRow(0, new Label("Name of place:"), nameOfPlace);
+
+            getDialogPane().setContent(grid);
+        }
+
+        public String getName() {
+            return nameOfPlace.getText();
+        }
+
+        public String getNameOfPlace() {
+            return nameOfPlace.getText();
+        }
+    }
+}
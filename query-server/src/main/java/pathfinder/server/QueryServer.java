@@ -0,0 +1,377 @@
+package pathfinder.server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.management.JMException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import pathfinder.graph.Edge;
+import pathfinder.graph.Graph;
+import pathfinder.graph.GraphBuilder;
+import pathfinder.graph.GraphMetrics;
+import pathfinder.graph.GraphSnapshot;
+import pathfinder.graph.InstrumentedGraph;
+import pathfinder.graph.ListGraph;
+import pathfinder.graph.PathBatch;
+
+// Answers path queries against a .graph file without the JavaFX application, either
+// over HTTP on the loopback interface or for every line of a query file:
+//
+//   serve <file.graph> [port]        GET /exists?from=A&to=B
+//                                    GET /path?from=A&to=B
+//                                    GET /edge?from=A&to=B
+//                                    GET /edges?from=A
+//   batch <file.graph> <queries>     one query per line as exists|path|edge;<from>;<to>
+//
+// Responses are JSON. The batch mode prints one JSON line per query in file order,
+// then throughput and latency percentiles on standard error. Places are kept as their
+// names and queries run concurrently against a snapshot of the loaded graph. Every
+// query is timed into GraphMetrics, which main publishes over JMX.
+public class QueryServer {
+    private static final int DEFAULT_PORT = 8080;
+
+    private final InstrumentedGraph<String> graph;
+
+    public QueryServer(Graph<String> graph) {
+        this.graph = new InstrumentedGraph<>(new GraphSnapshot<>(graph));
+    }
+
+    public static ListGraph<String> load(Path path) throws IOException {
+        ListGraph<String> graph = new ListGraph<>();
+
+        GraphBuilder.read(path, graph, (name, x, y) -> name);
+
+        return graph;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, JMException {
+        if (args.length >= 2 && args[0].equals("serve") && args.length <= 3) {
+            int port = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_PORT;
+            QueryServer queries = new QueryServer(load(Path.of(args[1])));
+            HttpServer server = queries.serve(port, PathBatch.newExecutor());
+
+            queries.getMetrics().register(args[1]);
+
+            System.err.printf("Serving %s on http://localhost:%d/%n", args[1], server.getAddress().getPort());
+        } else if (args.length == 3 && args[0].equals("batch")) {
+            QueryServer queries = new QueryServer(load(Path.of(args[1])));
+            ExecutorService executor = PathBatch.newExecutor();
+
+            queries.getMetrics().register(args[1]);
+
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                queries.runBatch(Files.readAllLines(Path.of(args[2]), StandardCharsets.UTF_8), executor, out,
+                        System.err);
+            } finally {
+                executor.shutdown();
+            }
+        } else {
+            System.err.println("Usage: QueryServer serve <file.graph> [port]");
+            System.err.println("       QueryServer batch <file.graph> <queries>");
+            System.exit(2);
+        }
+    }
+
+    public GraphMetrics getMetrics() {
+        return graph.getMetrics();
+    }
+
+    // Starts listening on the loopback interface, port 0 picks a free one
+    public HttpServer serve(int port, ExecutorService executor) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        return server;
+    }
+
+    // Answers every query line on the executor and writes the answers in order. Lines
+    // that are blank or start with # are skipped.
+    public void runBatch(List<String> lines, ExecutorService executor, Writer out, PrintStream report)
+            throws IOException, InterruptedException {
+        List<Future<String>> answers = new ArrayList<>(lines.size());
+        List<String> queries = new ArrayList<>(lines.size());
+
+        for (String line : lines) {
+            if (!line.isBlank() && !line.startsWith("#")) {
+                queries.add(line);
+            }
+        }
+
+        long[] latencies = new long[queries.size()];
+        long start = System.nanoTime();
+
+        for (int i = 0; i < queries.size(); i++) {
+            int index = i;
+
+            answers.add(executor.submit(() -> {
+                long begin = System.nanoTime();
+                String answer = answerLine(queries.get(index));
+
+                latencies[index] = System.nanoTime() - begin;
+                return answer;
+            }));
+        }
+
+        for (Future<String> answer : answers) {
+            try {
+                out.write(answer.get());
+            } catch (ExecutionException e) {
+                out.write(error(String.valueOf(e.getCause())));
+            }
+            out.write('\n');
+        }
+        out.flush();
+
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        report.printf("%d queries in %.1f ms, %.0f queries/s%n", latencies.length, elapsed / 1e6,
+                latencies.length / (elapsed / 1e9));
+        if (latencies.length > 0) {
+            report.printf("latency p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                    percentile(latencies, 0.5) / 1e3, percentile(latencies, 0.99) / 1e3,
+                    percentile(latencies, 0.999) / 1e3, latencies[latencies.length - 1] / 1e3);
+        }
+
+        GraphMetrics metrics = getMetrics();
+        if (metrics.getSearches() > 0) {
+            report.printf("per search: nodes expanded mean %.1f, p99 %d; edges relaxed mean %.1f, p99 %d%n",
+                    metrics.getMeanNodesExpanded(), metrics.getP99NodesExpanded(), metrics.getMeanEdgesRelaxed(),
+                    metrics.getP99EdgesRelaxed());
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private String answerLine(String line) {
+        String[] fields = line.split(";", -1);
+
+        if (fields.length != 3) {
+            return error("Expected <query>;<from>;<to> but got " + line);
+        }
+
+        try {
+            switch (fields[0]) {
+            case "exists":
+                return exists(fields[1], fields[2]);
+            case "path":
+                return path(fields[1], fields[2]);
+            case "edge":
+                return edge(fields[1], fields[2]);
+            default:
+                return error("Unknown query " + fields[0]);
+            }
+        } catch (NoSuchElementException e) {
+            return error(e.getMessage());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                respond(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+
+            Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+            String from = parameters.get("from");
+            String to = parameters.get("to");
+            String route = exchange.getRequestURI().getPath();
+
+            if (from == null || (to == null && !route.equals("/edges"))) {
+                respond(exchange, 400, error("Missing from or to"));
+                return;
+            }
+
+            try {
+                switch (route) {
+                case "/exists":
+                    respond(exchange, 200, exists(from, to));
+                    break;
+                case "/path":
+                    respond(exchange, 200, path(from, to));
+                    break;
+                case "/edge":
+                    respond(exchange, 200, edge(from, to));
+                    break;
+                case "/edges":
+                    respond(exchange, 200, edges(from));
+                    break;
+                default:
+                    respond(exchange, 404, error("Unknown route " + route));
+                }
+            } catch (NoSuchElementException e) {
+                respond(exchange, 404, error(e.getMessage()));
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+
+        if (query == null) {
+            return parameters;
+        }
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return parameters;
+    }
+
+    private String exists(String from, String to) {
+        check(from);
+        check(to);
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"from\":");
+        quote(json, from).append(",\"to\":");
+        quote(json, to).append(",\"exists\":").append(graph.pathExists(from, to)).append('}');
+
+        return json.toString();
+    }
+
+    private String path(String from, String to) {
+        check(from);
+        check(to);
+
+        List<Edge<String>> path = graph.getPath(from, to);
+        StringBuilder json = new StringBuilder();
+
+        json.append("{\"from\":");
+        quote(json, from).append(",\"to\":");
+        quote(json, to).append(",\"found\":").append(path != null);
+
+        if (path != null) {
+            long total = 0;
+
+            json.append(",\"edges\":[");
+            for (int i = 0; i < path.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendEdge(json, path.get(i));
+                total += path.get(i).getWeight();
+            }
+            json.append("],\"weight\":").append(total);
+        }
+
+        return json.append('}').toString();
+    }
+
+    private String edge(String from, String to) {
+        check(from);
+        check(to);
+
+        Edge<String> edge = graph.getEdgeBetween(from, to);
+
+        if (edge == null) {
+            throw new NoSuchElementException("No connection between " + from + " and " + to);
+        }
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"from\":");
+        quote(json, from).append(",\"edge\":");
+        appendEdge(json, edge);
+
+        return json.append('}').toString();
+    }
+
+    private String edges(String from) {
+        check(from);
+
+        StringBuilder json = new StringBuilder();
+        boolean first = true;
+
+        json.append("{\"from\":");
+        quote(json, from).append(",\"edges\":[");
+        for (Edge<String> edge : graph.getEdgesFrom(from)) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendEdge(json, edge);
+        }
+
+        return json.append("]}").toString();
+    }
+
+    private void check(String place) {
+        if (!graph.getNodes().contains(place)) {
+            throw new NoSuchElementException("Unknown place " + place);
+        }
+    }
+
+    private static void appendEdge(StringBuilder json, Edge<String> edge) {
+        json.append("{\"to\":");
+        quote(json, edge.getDestination()).append(",\"road\":");
+        quote(json, edge.getName()).append(",\"weight\":").append(edge.getWeight()).append('}');
+    }
+
+    private static String error(String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+
+        return quote(json, message).append('}').toString();
+    }
+
+    private static StringBuilder quote(StringBuilder json, String text) {
+        json.append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+
+        return json.append('"');
+    }
+}